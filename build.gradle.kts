@@ -13,7 +13,9 @@ group = "com.fem"
 version = "0.0.1-SNAPSHOT"
 
 java {
-	sourceCompatibility = JavaVersion.VERSION_17
+	toolchain {
+		languageVersion.set(JavaLanguageVersion.of(21))
+	}
 }
 
 configurations {
@@ -31,6 +33,16 @@ subprojects {
 		mavenCentral()
 	}
 
+	configure<JavaPluginExtension> {
+		toolchain {
+			languageVersion.set(JavaLanguageVersion.of(21))
+		}
+	}
+
+	// virtual thread 가 커넥션 대기와 jdbc 호출 중 carrier thread 를 점유하지 않도록 synchronized 를 ReentrantLock 으로 바꾼 버전
+	extra["hikaricp.version"] = "5.1.0"
+	extra["mysql.version"] = "9.0.0"
+
 	dependencies {
 		implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 		implementation("org.springframework.boot:spring-boot-starter-data-redis")
@@ -1,10 +1,15 @@
 package com.fem.couponapi;
 
+import com.fem.couponapi.ratelimit.CouponIssueRateLimitProperties;
 import com.fem.couponcore.CouponCoreConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
+@EnableConfigurationProperties(CouponIssueRateLimitProperties.class)
 @Import(CouponCoreConfiguration.class)
 @SpringBootApplication
 public class CouponApiApplication {
@@ -0,0 +1,23 @@
+package com.fem.couponapi.controller;
+
+import com.fem.couponcore.cache.LayeredCacheManager;
+import com.fem.couponcore.cache.LayeredCacheStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+    private final LayeredCacheManager cacheManager;
+
+    /**
+     * 캐시 계층별 hit rate, load, eviction 통계
+     */
+    @GetMapping("/v1/caches/statistics")
+    public List<LayeredCacheStatistics> statistics() {
+        return cacheManager.getStatistics();
+    }
+}
@@ -1,5 +1,7 @@
 package com.fem.couponapi.controller;
 
+import com.fem.couponapi.controller.dto.CouponIssueBatchRequestDto;
+import com.fem.couponapi.controller.dto.CouponIssueBatchResponseDto;
 import com.fem.couponapi.controller.dto.CouponIssueRequestDto;
 import com.fem.couponapi.controller.dto.CouponIssueResponseDto;
 import com.fem.couponapi.service.CouponIssueRequestService;
@@ -14,7 +16,8 @@ public class CouponIssueController {
     private final CouponIssueRequestService couponIssueRequestService;
 
     /**
-     * 동시성 문제를 자바의 synchronized 블록을 이용하여 처리
+     * 동시성 문제를 쿠폰 id 로 나눈 자바 lock 을 이용하여 처리
+     * 서로 다른 쿠폰의 요청은 함께 대기하지 않는다.
      * api server 가 분산환경이면 동시성 문제가 다시 발생할 수 있다.
      */
     @PostMapping("/v1/issue")
@@ -26,7 +29,7 @@ public class CouponIssueController {
     /**
      * 동시성 문제를 redisson 을 이용하여 처리
      * api server 가 분산환경 이더라도 동시성 문제가 발생하지 않는다.
-     * synchronized 블록 보다 rps 가 낮다.
+     * lock 획득마다 redis 를 왕복하므로 /v1/issue 의 쿠폰별 lock stripe 보다 rps 가 낮다.
      *
      */
     @PostMapping("/v2/issue")
@@ -46,6 +49,17 @@ public class CouponIssueController {
         return new CouponIssueResponseDto(true, null);
     }
 
+    /**
+     * 동시성 문제를 조건부 update 와 unique index 로 처리
+     * 발급 수량 증가와 검증을 update 한 번으로 처리하여 row lock 을 잡는 시간이 짧다.
+     * 중복 발급 조회 쿼리가 없어 record lock 을 이용할 때 보다 쿼리 수가 적다.
+     */
+    @PostMapping("/v4/issue")
+    public CouponIssueResponseDto issueV4(@RequestBody CouponIssueRequestDto body) {
+        couponIssueRequestService.issueRequestV4(body);
+        return new CouponIssueResponseDto(true, null);
+    }
+
     /**
      * redis set 을 이용하여 쿠폰 발급 검증을 처리
      * redis cache 를 이용하여
@@ -55,4 +69,24 @@ public class CouponIssueController {
         couponIssueRequestService.asyncIssueRequestV1(body);
         return new CouponIssueResponseDto(true, null);
     }
+
+    /**
+     * redis script 를 이용하여 쿠폰 발급 검증과 발급 요청 적재를 한 번에 처리
+     * 분산 락을 사용하지 않으므로 락 대기 없이 redis 처리량 만큼 요청을 받을 수 있다.
+     */
+    @PostMapping("/v2/issue-async")
+    public CouponIssueResponseDto asyncIssueV2(@RequestBody CouponIssueRequestDto body) {
+        couponIssueRequestService.asyncIssueRequestV2(body);
+        return new CouponIssueResponseDto(true, null);
+    }
+
+    /**
+     * 여러 쿠폰 발급 요청을 한 번에 처리
+     * 쿠폰 정보는 쿠폰마다 한 번만 검증하고, 발급 검증과 적재는 redis pipeline 으로 처리한다.
+     * 요청 순서대로 요청별 결과를 반환한다.
+     */
+    @PostMapping("/v1/issue-async/batch")
+    public CouponIssueBatchResponseDto asyncIssueBatch(@RequestBody CouponIssueBatchRequestDto body) {
+        return couponIssueRequestService.asyncIssueRequestBatch(body);
+    }
 }
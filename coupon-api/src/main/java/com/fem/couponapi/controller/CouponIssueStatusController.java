@@ -0,0 +1,34 @@
+package com.fem.couponapi.controller;
+
+import com.fem.couponcore.service.CouponIssueStatusService;
+import com.fem.couponcore.service.dto.CouponIssueStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CouponIssueStatusController {
+    private final CouponIssueStatusService couponIssueStatusService;
+
+    /**
+     * 비동기 발급 요청의 처리 상태
+     * QUEUED 이면 consumer 가 아직 처리하지 않은 요청이므로 잠시 후 다시 조회한다.
+     */
+    @GetMapping("/v1/issue-async/{couponId}/users/{userId}")
+    public CouponIssueStatus getStatus(@PathVariable Long couponId, @PathVariable Long userId) {
+        return couponIssueStatusService.getStatus(couponId, userId);
+    }
+
+    /**
+     * 여러 사용자의 비동기 발급 요청 처리 상태를 userIds 순서대로 조회한다.
+     */
+    @GetMapping("/v1/issue-async/{couponId}/users")
+    public List<CouponIssueStatus> getStatuses(@PathVariable Long couponId, @RequestParam List<Long> userIds) {
+        return couponIssueStatusService.getStatuses(couponId, userIds);
+    }
+}
@@ -0,0 +1,28 @@
+package com.fem.couponapi.controller;
+
+import com.fem.couponcore.service.CouponIssueService;
+import com.fem.couponcore.service.dto.UserCouponPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class UserCouponController {
+    private final CouponIssueService couponIssueService;
+
+    /**
+     * 사용자가 발급받은 쿠폰 목록
+     * 이전 응답의 nextCursor 를 cursor 로 전달하면 다음 페이지를 조회한다.
+     * used 를 전달하지 않으면 사용 여부와 관계없이 조회한다.
+     */
+    @GetMapping("/v1/users/{userId}/coupons")
+    public UserCouponPage findUserCoupons(@PathVariable Long userId,
+                                          @RequestParam(required = false) Boolean used,
+                                          @RequestParam(required = false) Long cursor,
+                                          @RequestParam(defaultValue = "20") int size) {
+        return couponIssueService.findUserCoupons(userId, used, cursor, size);
+    }
+}
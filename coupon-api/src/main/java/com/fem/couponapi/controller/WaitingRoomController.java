@@ -0,0 +1,62 @@
+package com.fem.couponapi.controller;
+
+import com.fem.couponapi.controller.dto.CouponIssueRequestDto;
+import com.fem.couponapi.controller.dto.WaitingRoomAdmissionRateRequestDto;
+import com.fem.couponcore.service.WaitingRoomService;
+import com.fem.couponcore.service.dto.WaitingRoomStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class WaitingRoomController {
+    private final WaitingRoomService waitingRoomService;
+
+    /**
+     * 쿠폰의 대기열을 연다. 대기열을 연 쿠폰은 발급 api 로 직접 발급 요청할 수 없다.
+     */
+    @PutMapping("/v1/waiting-room/{couponId}")
+    public void open(@PathVariable Long couponId) {
+        waitingRoomService.open(couponId);
+    }
+
+    /**
+     * 쿠폰의 대기열을 닫는다. 이미 대기 중인 사용자는 계속 입장한다.
+     */
+    @DeleteMapping("/v1/waiting-room/{couponId}")
+    public void close(@PathVariable Long couponId) {
+        waitingRoomService.close(couponId);
+    }
+
+    /**
+     * 대기열을 연 쿠폰의 발급 이벤트 대기열에 들어가고 대기 순번을 반환한다.
+     * 입장하면 발급 요청은 대기열에서 처리하므로 /v1/issue-async 를 다시 호출하지 않는다.
+     */
+    @PostMapping("/v1/waiting-room/enter")
+    public WaitingRoomStatus enter(@RequestBody CouponIssueRequestDto body) {
+        return waitingRoomService.enter(body.couponId(), body.userId());
+    }
+
+    /**
+     * 대기 순번 또는 입장 결과
+     * redis 조회 한두 번으로 처리하므로 대기 중인 사용자가 주기적으로 호출한다.
+     */
+    @GetMapping("/v1/waiting-room/{couponId}/users/{userId}")
+    public WaitingRoomStatus status(@PathVariable Long couponId, @PathVariable Long userId) {
+        return waitingRoomService.getStatus(couponId, userId);
+    }
+
+    /**
+     * 쿠폰별 초당 입장 수를 변경한다.
+     */
+    @PutMapping("/v1/waiting-room/{couponId}/admission-rate")
+    public void updateAdmissionRate(@PathVariable Long couponId, @RequestBody WaitingRoomAdmissionRateRequestDto body) {
+        waitingRoomService.updateAdmissionRate(couponId, body.rate());
+    }
+}
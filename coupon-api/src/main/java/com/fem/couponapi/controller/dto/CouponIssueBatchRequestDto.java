@@ -0,0 +1,7 @@
+package com.fem.couponapi.controller.dto;
+
+import java.util.List;
+
+public record CouponIssueBatchRequestDto(List<CouponIssueRequestDto> requests) {
+    public static final int MAX_SIZE = 1000;
+}
@@ -0,0 +1,26 @@
+package com.fem.couponapi.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fem.couponcore.service.dto.CouponIssueResult;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.*;
+
+public record CouponIssueBatchResponseDto(List<Item> results) {
+
+    public static CouponIssueBatchResponseDto of(List<CouponIssueResult> results) {
+        return new CouponIssueBatchResponseDto(results.stream()
+                .map(Item::of)
+                .toList());
+    }
+
+    @JsonInclude(value = Include.NON_NULL)
+    public record Item(Long couponId, Long userId, boolean isSuccess, String message) {
+
+        private static Item of(CouponIssueResult result) {
+            String message = result.isSuccess() ? null : result.errorCode().message;
+            return new Item(result.couponId(), result.userId(), result.isSuccess(), message);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.fem.couponapi.controller.dto;
+
+public record WaitingRoomAdmissionRateRequestDto(int rate) {
+}
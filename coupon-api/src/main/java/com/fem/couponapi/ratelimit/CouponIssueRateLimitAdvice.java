@@ -0,0 +1,80 @@
+package com.fem.couponapi.ratelimit;
+
+import com.fem.couponapi.controller.dto.CouponIssueBatchRequestDto;
+import com.fem.couponapi.controller.dto.CouponIssueRequestDto;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * 발급 요청 body 를 읽은 직후 발급 서비스를 호출하기 전에 요청 제한을 확인한다.
+ * 여러 발급을 한 번에 요청하는 body 는 발급마다 요청 제한을 적용한다.
+ * client 는 접속 주소로 구분한다. 접속 주소가 신뢰하는 proxy 이면 X-Client-Id 헤더, X-Forwarded-For 에서 신뢰하는 proxy 를
+ * 제외한 가장 마지막 주소 순서로 구분한다. 헤더는 client 가 임의로 바꿀 수 있으므로 신뢰하는 proxy 를 거친 요청에만 사용한다.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class CouponIssueRateLimitAdvice extends RequestBodyAdviceAdapter {
+    private final CouponIssueRateLimiter couponIssueRateLimiter;
+    private final CouponIssueRateLimitProperties properties;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return CouponIssueRequestDto.class.equals(targetType) || CouponIssueBatchRequestDto.class.equals(targetType);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        if (body instanceof CouponIssueBatchRequestDto requestDto) {
+            if (requestDto.requests() != null) {
+                couponIssueRateLimiter.check(getEndpoint(request), requestDto.requests(), getClientId(request));
+            }
+            return body;
+        }
+        CouponIssueRequestDto requestDto = (CouponIssueRequestDto) body;
+        couponIssueRateLimiter.check(getEndpoint(request), requestDto.couponId(), requestDto.userId(), getClientId(request));
+        return body;
+    }
+
+    private String getEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? request.getRequestURI() : pattern.toString();
+    }
+
+    private String getClientId(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!properties.isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String clientId = request.getHeader("X-Client-Id");
+        if (clientId != null && !clientId.isBlank()) {
+            return clientId;
+        }
+
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] addresses = forwardedFor.split(",");
+        for (int i = addresses.length - 1; i >= 0; i--) {
+            String address = addresses[i].trim();
+            if (!address.isEmpty() && !properties.isTrustedProxy(address)) {
+                return address;
+            }
+        }
+        return remoteAddr;
+    }
+}
@@ -0,0 +1,61 @@
+package com.fem.couponapi.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 발급 요청 제한 설정
+ * user 는 endpoint, 쿠폰, 사용자별 bucket 이고 client 는 endpoint, client 별 bucket 이다.
+ * user 제한은 쿠폰별 설정, endpoint 별 설정, 기본 설정 순서로 적용한다.
+ * client 제한은 clientEndpoints 의 endpoint 별 설정, 기본 설정 순서로 적용한다. 여러 발급을 한 번에 요청하는 endpoint 는
+ * 발급 수만큼 token 을 차감하므로 capacity 가 한 번에 요청할 수 있는 발급 수의 상한이 된다.
+ * trustedProxies 는 X-Client-Id, X-Forwarded-For 헤더를 믿을 수 있는 proxy(load balancer 등)의 주소 목록이다.
+ */
+@ConfigurationProperties(prefix = "coupon.rate-limit")
+public record CouponIssueRateLimitProperties(
+        boolean enabled,
+        Limit user,
+        Limit client,
+        Map<String, Limit> endpoints,
+        Map<String, Limit> clientEndpoints,
+        Map<Long, Limit> coupons,
+        long localMaximumSize,
+        List<String> trustedProxies
+) {
+
+    /**
+     * capacity 만큼 연속으로 요청할 수 있고, 이후에는 초당 refillPerSecond 만큼 요청할 수 있다.
+     * 두 값 모두 0 보다 커야 한다. refillPerSecond 가 0 이면 다음 token 까지 남은 시간을 계산할 수 없다.
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+        public Limit {
+            if (capacity <= 0 || !(refillPerSecond > 0)) {
+                throw new IllegalArgumentException("요청 제한 설정은 0 보다 커야 합니다. capacity : %s, refillPerSecond : %s"
+                        .formatted(capacity, refillPerSecond));
+            }
+        }
+    }
+
+    public Limit userLimit(String endpoint, Long couponId) {
+        if (coupons != null && coupons.containsKey(couponId)) {
+            return coupons.get(couponId);
+        }
+        if (endpoints != null && endpoints.containsKey(endpoint)) {
+            return endpoints.get(endpoint);
+        }
+        return user;
+    }
+
+    public Limit clientLimit(String endpoint) {
+        if (clientEndpoints != null && clientEndpoints.containsKey(endpoint)) {
+            return clientEndpoints.get(endpoint);
+        }
+        return client;
+    }
+
+    public boolean isTrustedProxy(String address) {
+        return trustedProxies != null && trustedProxies.contains(address);
+    }
+}
@@ -0,0 +1,123 @@
+package com.fem.couponapi.ratelimit;
+
+import com.fem.couponapi.controller.dto.CouponIssueRequestDto;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.repository.redis.RateLimitRepository;
+import com.fem.couponcore.repository.redis.RateLimitRepository.Bucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fem.couponcore.exception.ErrorCode.TOO_MANY_COUPON_ISSUE_REQUESTS;
+
+/**
+ * 발급 요청을 사용자, client 별로 제한한다.
+ * 차감할 token 이 bucket 의 최대 token 수보다 많은 요청은 충전을 기다려도 받을 수 없으므로 redis 접근 없이 거절한다.
+ * redis 에서 거절된 bucket 은 다음 token 이 생길 때까지 노드 로컬에 기록하여, 같은 bucket 의 요청은 redis 접근 없이 거절한다.
+ * redis 에 접근할 수 없으면 요청을 제한하지 않는다.
+ */
+@Slf4j
+@Component
+public class CouponIssueRateLimiter {
+    private static final String USER = "user";
+    private static final String CLIENT = "client";
+
+    private final CouponIssueRateLimitProperties properties;
+    private final RateLimitRepository rateLimitRepository;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Long> blockedUntil;
+
+    public CouponIssueRateLimiter(CouponIssueRateLimitProperties properties,
+                                  RateLimitRepository rateLimitRepository,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimitRepository = rateLimitRepository;
+        this.meterRegistry = meterRegistry;
+        this.blockedUntil = Caffeine.newBuilder()
+                .maximumSize(properties.localMaximumSize())
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+    }
+
+    public void check(String endpoint, Long couponId, Long userId, String clientId) {
+        check(endpoint, List.of(new CouponIssueRequestDto(couponId, userId)), clientId);
+    }
+
+    /**
+     * 여러 발급을 한 번에 요청하면 발급마다 사용자 bucket 을 확인하고 client bucket 은 발급 수만큼 차감한다.
+     * 하나라도 거절되면 요청 전체를 거절하고 어떤 bucket 도 차감하지 않는다.
+     */
+    public void check(String endpoint, List<CouponIssueRequestDto> requests, String clientId) {
+        if (!properties.enabled()) {
+            return;
+        }
+
+        Map<String, Bucket> userBuckets = new LinkedHashMap<>();
+        List<CouponIssueRequestDto> bucketRequests = new ArrayList<>();
+        for (CouponIssueRequestDto request : requests) {
+            if (request == null || request.couponId() == null || request.userId() == null) {
+                continue;
+            }
+            CouponIssueRateLimitProperties.Limit userLimit = properties.userLimit(endpoint, request.couponId());
+            String key = "rate:user:%s:%s:%s".formatted(endpoint, request.couponId(), request.userId());
+            Bucket bucket = userBuckets.get(key);
+            if (bucket == null) {
+                bucketRequests.add(request);
+            }
+            userBuckets.put(key, new Bucket(key, userLimit.capacity(), userLimit.refillPerSecond(), bucket == null ? 1 : bucket.tokens() + 1));
+        }
+        if (userBuckets.isEmpty()) {
+            return;
+        }
+
+        CouponIssueRateLimitProperties.Limit clientLimit = properties.clientLimit(endpoint);
+        int issueCount = userBuckets.values().stream().mapToInt(Bucket::tokens).sum();
+        List<Bucket> buckets = new ArrayList<>(userBuckets.values());
+        buckets.add(new Bucket("rate:client:%s:%s".formatted(endpoint, clientId), clientLimit.capacity(), clientLimit.refillPerSecond(), issueCount));
+        // client bucket 이 거절되면 첫 번째 발급 요청을 거절 메시지에 남긴다.
+        bucketRequests.add(bucketRequests.get(0));
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            Long until = blockedUntil.getIfPresent(bucket.key());
+            if (bucket.tokens() > bucket.capacity() || (until != null && until > now)) {
+                reject(endpoint, bucketRequests.get(i), scope(i, buckets.size()), "local");
+            }
+        }
+
+        List<Long> result;
+        try {
+            result = rateLimitRepository.tryAcquire(buckets, now);
+        } catch (Exception e) {
+            log.error("발급 요청 제한 확인 실패. endpoint : {}, couponId : {}, userId : {}, size : {}",
+                    endpoint, bucketRequests.get(0).couponId(), bucketRequests.get(0).userId(), issueCount, e);
+            return;
+        }
+
+        int rejected = result.get(0).intValue();
+        if (rejected > 0) {
+            int index = rejected - 1;
+            blockedUntil.put(buckets.get(index).key(), now + result.get(1));
+            reject(endpoint, bucketRequests.get(index), scope(index, buckets.size()), "redis");
+        }
+    }
+
+    private String scope(int index, int size) {
+        return index == size - 1 ? CLIENT : USER;
+    }
+
+    private void reject(String endpoint, CouponIssueRequestDto request, String scope, String tier) {
+        meterRegistry.counter("coupon.rate.limit.rejected", "endpoint", endpoint, "scope", scope, "tier", tier).increment();
+        throw new CouponIssueException(TOO_MANY_COUPON_ISSUE_REQUESTS, "발급 요청 제한을 초과했습니다. endpoint : %s, couponId : %s, userId : %s, scope : %s"
+                .formatted(endpoint, request.couponId(), request.userId(), scope));
+    }
+}
@@ -1,13 +1,27 @@
 package com.fem.couponapi.service;
 
+import com.fem.couponapi.controller.dto.CouponIssueBatchRequestDto;
+import com.fem.couponapi.controller.dto.CouponIssueBatchResponseDto;
 import com.fem.couponapi.controller.dto.CouponIssueRequestDto;
+import com.fem.couponcore.component.CouponIssueMetrics;
+import com.fem.couponcore.component.CouponLockStripes;
 import com.fem.couponcore.component.DistributeLockExecutor;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
 import com.fem.couponcore.service.AsyncCouponIssueServiceV1;
+import com.fem.couponcore.service.AsyncCouponIssueServiceV2;
 import com.fem.couponcore.service.CouponIssueService;
+import com.fem.couponcore.service.WaitingRoomService;
+import com.fem.couponcore.service.dto.CouponIssueResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -15,27 +29,96 @@ public class CouponIssueRequestService {
     private final CouponIssueService couponIssueService;
     private final DistributeLockExecutor distributeLockExecutor;
     private final AsyncCouponIssueServiceV1 asyncCouponIssueServiceV1;
+    private final AsyncCouponIssueServiceV2 asyncCouponIssueServiceV2;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponLockStripes couponLockStripes;
+    private final WaitingRoomService waitingRoomService;
 
     public void issueRequestV1(CouponIssueRequestDto requestDto) {
-        synchronized (this) {
-            couponIssueService.issue(requestDto.couponId(), requestDto.userId());
-        }
+        waitingRoomService.checkNotOpened(requestDto.couponId());
+        couponIssueMetrics.record("v1", requestDto.couponId(), () ->
+                couponLockStripes.execute(requestDto.couponId(),
+                        () -> couponIssueService.issue(requestDto.couponId(), requestDto.userId())));
         log.info("쿠폰 발급 완료. couponId : {}, userId: {}", requestDto.couponId(), requestDto.userId());
     }
 
     public void issueRequestV2(CouponIssueRequestDto requestDto) {
-        distributeLockExecutor.execute("lock_" + requestDto.couponId(), 10000, 10000,
-                () -> couponIssueService.issue(requestDto.couponId(), requestDto.userId()));
+        waitingRoomService.checkNotOpened(requestDto.couponId());
+        couponIssueMetrics.record("v2", requestDto.couponId(), () ->
+                distributeLockExecutor.execute("lock_" + requestDto.couponId(), 10000, 10000,
+                        () -> couponIssueService.issue(requestDto.couponId(), requestDto.userId())));
 
         log.info("쿠폰 발급 완료. couponId : {}, userId: {}", requestDto.couponId(), requestDto.userId());
     }
 
     public void issueRequestV3(CouponIssueRequestDto requestDto) {
-        couponIssueService.issueWithLock(requestDto.couponId(), requestDto.userId());
+        waitingRoomService.checkNotOpened(requestDto.couponId());
+        couponIssueMetrics.record("v3", requestDto.couponId(), () ->
+                couponIssueService.issueWithLock(requestDto.couponId(), requestDto.userId()));
+        log.info("쿠폰 발급 완료. couponId : {}, userId: {}", requestDto.couponId(), requestDto.userId());
+    }
+
+    public void issueRequestV4(CouponIssueRequestDto requestDto) {
+        waitingRoomService.checkNotOpened(requestDto.couponId());
+        couponIssueMetrics.record("v4", requestDto.couponId(), () ->
+                couponIssueService.issueWithConditionalUpdate(requestDto.couponId(), requestDto.userId()));
         log.info("쿠폰 발급 완료. couponId : {}, userId: {}", requestDto.couponId(), requestDto.userId());
     }
 
     public void asyncIssueRequestV1(CouponIssueRequestDto requestDto) {
-        asyncCouponIssueServiceV1.issue(requestDto.couponId(), requestDto.userId());
+        waitingRoomService.checkNotOpened(requestDto.couponId());
+        couponIssueMetrics.record("async_v1", requestDto.couponId(), () ->
+                asyncCouponIssueServiceV1.issue(requestDto.couponId(), requestDto.userId()));
+    }
+
+    public void asyncIssueRequestV2(CouponIssueRequestDto requestDto) {
+        waitingRoomService.checkNotOpened(requestDto.couponId());
+        couponIssueMetrics.record("async_v2", requestDto.couponId(), () ->
+                asyncCouponIssueServiceV2.issue(requestDto.couponId(), requestDto.userId()));
+    }
+
+    /**
+     * 대기열을 연 쿠폰의 요청은 발급하지 않고 실패 결과로 반환한다. 결과는 요청 순서대로 반환한다.
+     */
+    public CouponIssueBatchResponseDto asyncIssueRequestBatch(CouponIssueBatchRequestDto requestDto) {
+        checkBatchRequest(requestDto);
+        CouponIssueResult[] results = new CouponIssueResult[requestDto.requests().size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<CouponIssueRequest> requests = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            CouponIssueRequestDto request = requestDto.requests().get(i);
+            if (waitingRoomService.isOpened(request.couponId())) {
+                results[i] = new CouponIssueResult(request.couponId(), request.userId(), FAIL_COUPON_ISSUE_REQUEST);
+                continue;
+            }
+            indexes.add(i);
+            requests.add(new CouponIssueRequest(request.couponId(), request.userId()));
+        }
+
+        List<CouponIssueResult> issued = requests.isEmpty() ? List.of() : asyncCouponIssueServiceV2.issueAll(requests);
+        for (int i = 0; i < issued.size(); i++) {
+            results[indexes.get(i)] = issued.get(i);
+        }
+        List<CouponIssueResult> resultList = List.of(results);
+        resultList.forEach(result -> couponIssueMetrics.recordResult("async_batch", result.couponId(), result.errorCode()));
+        return CouponIssueBatchResponseDto.of(resultList);
+    }
+
+    private void checkBatchRequest(CouponIssueBatchRequestDto requestDto) {
+        List<CouponIssueRequestDto> requests = requestDto.requests();
+        if (requests == null || requests.isEmpty()) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "발급 요청이 비어 있습니다.");
+        }
+
+        if (requests.size() > CouponIssueBatchRequestDto.MAX_SIZE) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "한 번에 요청할 수 있는 발급 요청 수를 초과합니다. size : %s, max : %s"
+                    .formatted(requests.size(), CouponIssueBatchRequestDto.MAX_SIZE));
+        }
+
+        boolean hasInvalidRequest = requests.stream()
+                .anyMatch(request -> request == null || request.couponId() == null || request.userId() == null);
+        if (hasInvalidRequest) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "couponId, userId 가 없는 발급 요청이 있습니다.");
+        }
     }
 }
@@ -0,0 +1,64 @@
+val bootJar: org.springframework.boot.gradle.tasks.bundling.BootJar by tasks
+
+bootJar.enabled = false
+
+dependencies {
+    implementation(project(":coupon-core"))
+    implementation(project(":coupon-api"))
+    implementation(project(":coupon-consumer"))
+    implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.openjdk.jmh:jmh-core:1.37")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    implementation("com.github.codemonstur:embedded-redis:1.4.3")
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+    runtimeOnly("com.h2database:h2")
+}
+
+// ./gradlew :coupon-benchmark:jmh -PjmhThreads=1,8,32 -PjmhInclude=CouponIssueRequestBenchmark
+val jmhThreads = (findProperty("jmhThreads") as String? ?: "1,8,32").split(",").map { it.trim() }
+val jmhInclude = findProperty("jmhInclude") as String? ?: ".*Benchmark.*"
+val jmhResultDir = layout.buildDirectory.dir("results/jmh")
+
+val jmhTasks = jmhThreads.map { threads ->
+    tasks.register<JavaExec>("jmhThreads$threads") {
+        group = "benchmark"
+        description = "Runs JMH benchmarks with $threads threads"
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        doFirst { jmhResultDir.get().asFile.mkdirs() }
+        args(
+            jmhInclude,
+            "-t", threads,
+            "-rf", "json",
+            "-rff", jmhResultDir.get().file("threads-$threads.json").asFile.path
+        )
+    }
+}
+
+tasks.register("jmh") {
+    group = "benchmark"
+    description = "Runs JMH benchmarks for every thread count in jmhThreads"
+    dependsOn(jmhTasks)
+}
+
+// ./gradlew :coupon-benchmark:loadTest -PloadTestArgs="--endpoints=/v1/issue-async --consumer=true --duration=60"
+// ./gradlew :coupon-benchmark:loadTest -PloadTestArgs="--endpoints=/v2/issue --threads=2000 --thread-modes=platform,virtual"
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Boots coupon-api against embedded redis and h2 and drives the issue endpoints"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.fem.couponbenchmark.loadtest.LoadTest")
+    // virtual thread 가 carrier thread 를 점유하는 구간을 출력한다.
+    jvmArgs("-Djdk.tracePinnedThreads=short")
+    args((findProperty("loadTestArgs") as String? ?: "").split(" ").filter { it.isNotBlank() })
+    args("--result-dir=" + layout.buildDirectory.dir("results/loadtest").get().asFile.path)
+}
+
+// ./gradlew :coupon-benchmark:memoryBenchmark -PmemoryBenchmarkArgs="1000000 10"
+tasks.register<JavaExec>("memoryBenchmark") {
+    group = "benchmark"
+    description = "Compares redis memory of set and bitmap issued-user tracking"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.fem.couponbenchmark.memory.IssuedUserMemoryBenchmark")
+    args((findProperty("memoryBenchmarkArgs") as String? ?: "").split(" ").filter { it.isNotBlank() })
+}
@@ -0,0 +1,115 @@
+package com.fem.couponbenchmark;
+
+import com.fem.couponapi.CouponApiApplication;
+import com.fem.couponconsumer.CouponConsumerApplication;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 내장 redis 와 h2 를 띄우고 그 위에서 애플리케이션 컨텍스트를 구동한다.
+ * 같은 환경에서 구동한 컨텍스트는 redis 와 h2 를 공유한다.
+ * 애플리케이션은 실제 구동할 때와 같은 설정 파일을 읽는다.
+ */
+public class BenchmarkEnvironment implements AutoCloseable {
+    private static final String CORE_CONFIG_NAME = "application-core";
+    private static final Map<Class<?>, String> CONFIG_NAMES = Map.of(
+            CouponApiApplication.class, "application-core,application-api",
+            CouponConsumerApplication.class, "application-core,application-consumer"
+    );
+
+    private final RedisServer redisServer;
+    private final int redisPort;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    private BenchmarkEnvironment(RedisServer redisServer, int redisPort) {
+        this.redisServer = redisServer;
+        this.redisPort = redisPort;
+    }
+
+    public static BenchmarkEnvironment start(Class<?> applicationClass, String... properties) {
+        BenchmarkEnvironment environment = startRedis();
+        environment.run(applicationClass, WebApplicationType.NONE, properties);
+        return environment;
+    }
+
+    public static BenchmarkEnvironment startRedis() {
+        try {
+            int redisPort = findFreePort();
+            RedisServer redisServer = new RedisServer(redisPort);
+            redisServer.start();
+            return new BenchmarkEnvironment(redisServer, redisPort);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ConfigurableApplicationContext run(Class<?> applicationClass, WebApplicationType webApplicationType,
+                                              String... properties) {
+        System.setProperty("spring.config.name", CONFIG_NAMES.getOrDefault(applicationClass, CORE_CONFIG_NAME));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(applicationClass)
+                .web(webApplicationType)
+                .profiles("test")
+                .properties(
+                        "spring.data.redis.port=" + redisPort,
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN"
+                )
+                .properties(properties)
+                .run();
+        contexts.add(context);
+        return context;
+    }
+
+    public void stop(ConfigurableApplicationContext context) {
+        context.close();
+        contexts.remove(context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return contexts.get(0).getBean(type);
+    }
+
+    public List<Long> createCoupons(int count, Integer totalQuantity) {
+        CouponJpaRepository couponJpaRepository = getBean(CouponJpaRepository.class);
+        return IntStream.range(0, count)
+                .mapToObj(idx -> couponJpaRepository.save(Coupon.builder()
+                        .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                        .title("벤치마크 쿠폰 " + idx)
+                        .totalQuantity(totalQuantity)
+                        .issuedQuantity(0)
+                        .dateIssueStart(LocalDateTime.now().minusDays(1))
+                        .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                        .build()))
+                .map(Coupon::getId)
+                .toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        redisServer.stop();
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.fem.couponbenchmark;
+
+import com.fem.couponcore.CouponCoreConfiguration;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.service.CouponIssueRedisService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+
+/**
+ * 발급 수량, 중복 발급 검증에 드는 redis 조회 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CouponIssueRedisServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int issuedCount;
+
+    private BenchmarkEnvironment environment;
+    private CouponIssueRedisService couponIssueRedisService;
+    private CouponRedisEntity coupon;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(CouponCoreConfiguration.class);
+        couponIssueRedisService = environment.getBean(CouponIssueRedisService.class);
+        coupon = new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, Integer.MAX_VALUE, null,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+
+        StringRedisTemplate redisTemplate = environment.getBean(StringRedisTemplate.class);
+        String[] userIds = new String[issuedCount];
+        for (int i = 0; i < issuedCount; i++) {
+            userIds[i] = String.valueOf(i);
+        }
+        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.id()), userIds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public boolean availableTotalIssueQuantity() {
+        return couponIssueRedisService.availableTotalIssueQuantity(coupon.id(), coupon.totalQuantity());
+    }
+
+    @Benchmark
+    public boolean availableUserIssueQuantity() {
+        long userId = ThreadLocalRandom.current().nextLong(issuedCount * 2L);
+        return couponIssueRedisService.availableUserIssueQuantity(coupon.id(), userId);
+    }
+
+    @Benchmark
+    public void checkCouponIssueQuantity() {
+        long userId = issuedCount + ThreadLocalRandom.current().nextLong(issuedCount);
+        couponIssueRedisService.checkCouponIssueQuantity(coupon, userId);
+    }
+}
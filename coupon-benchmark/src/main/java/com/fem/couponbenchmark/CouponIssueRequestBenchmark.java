@@ -0,0 +1,86 @@
+package com.fem.couponbenchmark;
+
+import com.fem.couponapi.CouponApiApplication;
+import com.fem.couponapi.controller.dto.CouponIssueRequestDto;
+import com.fem.couponapi.service.CouponIssueRequestService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 쿠폰 발급 전략별 처리량 비교
+ * couponCount 가 작을수록 하나의 쿠폰에 요청이 몰린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CouponIssueRequestBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int couponCount;
+
+    private BenchmarkEnvironment environment;
+    private CouponIssueRequestService couponIssueRequestService;
+    private List<Long> couponIds;
+    private final AtomicLong userIdSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = BenchmarkEnvironment.start(CouponApiApplication.class);
+        couponIssueRequestService = environment.getBean(CouponIssueRequestService.class);
+        couponIds = environment.createCoupons(couponCount, Integer.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.close();
+    }
+
+    @Benchmark
+    public void issueRequestV1(IssueCounters counters) {
+        issue(counters, couponIssueRequestService::issueRequestV1);
+    }
+
+    @Benchmark
+    public void issueRequestV2(IssueCounters counters) {
+        issue(counters, couponIssueRequestService::issueRequestV2);
+    }
+
+    @Benchmark
+    public void issueRequestV3(IssueCounters counters) {
+        issue(counters, couponIssueRequestService::issueRequestV3);
+    }
+
+    @Benchmark
+    public void issueRequestV4(IssueCounters counters) {
+        issue(counters, couponIssueRequestService::issueRequestV4);
+    }
+
+    @Benchmark
+    public void asyncIssueRequestV1(IssueCounters counters) {
+        issue(counters, couponIssueRequestService::asyncIssueRequestV1);
+    }
+
+    @Benchmark
+    public void asyncIssueRequestV2(IssueCounters counters) {
+        issue(counters, couponIssueRequestService::asyncIssueRequestV2);
+    }
+
+    private void issue(IssueCounters counters, Consumer<CouponIssueRequestDto> request) {
+        Long couponId = couponIds.get(ThreadLocalRandom.current().nextInt(couponIds.size()));
+        try {
+            request.accept(new CouponIssueRequestDto(couponId, userIdSequence.incrementAndGet()));
+            counters.success++;
+        } catch (RuntimeException e) {
+            counters.failure++;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.fem.couponbenchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 발급 요청 큐 직렬화 비용 비교 (이전 json 형식 vs binary 형식)
+ * 요청 하나당 크기는 setup 에서 출력한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponIssueRequestCodecBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CouponIssueRequestCodec binaryCodec = new CouponIssueRequestCodec("binary");
+    private CouponIssueRequest request;
+    private CouponIssueRequest legacyRequest;
+    private String legacyJson;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = CouponIssueRequest.of(123456L, 987654321L);
+        legacyRequest = new CouponIssueRequest(request.couponId(), request.userId());
+        legacyJson = "{\"couponId\":%d,\"userId\":%d}".formatted(request.couponId(), request.userId());
+        binary = binaryCodec.encode(request);
+        System.out.printf("%nbytes per entry - json : %d, json(with id, timestamp) : %d, binary : %d%n",
+                legacyJson.getBytes().length, objectMapper.writeValueAsBytes(request).length, binary.length);
+    }
+
+    @Benchmark
+    public String encodeJson() throws IOException {
+        return objectMapper.writeValueAsString(legacyRequest);
+    }
+
+    @Benchmark
+    public CouponIssueRequest decodeJson() throws IOException {
+        return objectMapper.readValue(legacyJson, CouponIssueRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binaryCodec.encode(request);
+    }
+
+    @Benchmark
+    public CouponIssueRequest decodeBinary() {
+        return binaryCodec.decode(binary);
+    }
+}
@@ -0,0 +1,41 @@
+package com.fem.couponbenchmark;
+
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * redis 캐시에 사용하는 직렬화 방식으로 쿠폰 캐시를 읽고 쓰는 비용
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponRedisEntitySerializationBenchmark {
+    private final GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+    private CouponRedisEntity coupon;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        coupon = new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, 1000, null,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+        serialized = serializer.serialize(coupon);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(coupon);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
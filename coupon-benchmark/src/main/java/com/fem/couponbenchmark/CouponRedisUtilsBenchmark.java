@@ -0,0 +1,31 @@
+package com.fem.couponbenchmark;
+
+import com.fem.couponcore.util.CouponRedisUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponRedisUtilsBenchmark {
+    private Long couponId = 12345L;
+
+    @Benchmark
+    public String issueRequestKey() {
+        return CouponRedisUtils.getIssueRequestKey(couponId);
+    }
+
+    @Benchmark
+    public String issueRequestQueueKey() {
+        return CouponRedisUtils.getIssueRequestQueueKey(couponId);
+    }
+
+    @Benchmark
+    public String lockKey() {
+        return CouponRedisUtils.getLockKey(couponId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.fem.couponbenchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 발급 성공, 실패 횟수를 벤치마크 결과에 함께 기록한다.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class IssueCounters {
+    public long success;
+    public long failure;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        success = 0;
+        failure = 0;
+    }
+}
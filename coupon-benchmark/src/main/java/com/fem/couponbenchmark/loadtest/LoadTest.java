@@ -0,0 +1,251 @@
+package com.fem.couponbenchmark.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fem.couponapi.CouponApiApplication;
+import com.fem.couponbenchmark.BenchmarkEnvironment;
+import com.fem.couponbenchmark.loadtest.LoadTestOptions.ThreadMode;
+import com.fem.couponconsumer.CouponConsumerApplication;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+
+/**
+ * coupon-api 를 내장 redis, h2 위에서 구동하고 발급 api 에 부하를 준다.
+ * 엔드포인트별 처리량과 지연 시간 분포(HdrHistogram)를 기록하고
+ * 초과 발급, 중복 발급이 없는지 검증한다.
+ * thread-modes 로 platform thread 와 virtual thread 를 번갈아 구동해 처리량과 요청당 메모리를 비교한다.
+ * 부하를 주는 client 는 모드와 관계없이 virtual thread 를 사용해 client 의 스레드 비용이 결과에 섞이지 않게 한다.
+ */
+public class LoadTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LoadTestOptions options;
+    private final BenchmarkEnvironment environment;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final ThreadMode threadMode;
+
+    public LoadTest(LoadTestOptions options, BenchmarkEnvironment environment, int port, ThreadMode threadMode) {
+        this.options = options;
+        this.environment = environment;
+        this.httpClient = HttpClient.newHttpClient();
+        this.baseUrl = "http://localhost:" + port;
+        this.threadMode = threadMode;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        BenchmarkEnvironment environment = BenchmarkEnvironment.startRedis();
+        try {
+            Files.createDirectories(Path.of(options.resultDir()));
+            boolean passed = true;
+            for (ThreadMode threadMode : options.threadModes()) {
+                String virtualThreads = "spring.threads.virtual.enabled=" + threadMode.isVirtual();
+                ConfigurableApplicationContext api = environment.run(CouponApiApplication.class, WebApplicationType.SERVLET,
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + options.threads(),
+                        virtualThreads);
+                ConfigurableApplicationContext consumer = options.consumer()
+                        ? environment.run(CouponConsumerApplication.class, WebApplicationType.SERVLET, "server.port=0", virtualThreads)
+                        : null;
+
+                int port = ((WebServerApplicationContext) api).getWebServer().getPort();
+                LoadTest loadTest = new LoadTest(options, environment, port, threadMode);
+                for (String endpoint : options.endpoints()) {
+                    passed &= loadTest.run(endpoint.trim());
+                }
+
+                if (consumer != null) {
+                    environment.stop(consumer);
+                }
+                environment.stop(api);
+            }
+
+            if (!passed) {
+                System.exit(1);
+            }
+        } finally {
+            environment.close();
+        }
+    }
+
+    private boolean run(String endpoint) throws Exception {
+        List<Long> couponIds = environment.createCoupons(options.coupons(), options.totalQuantity());
+        AtomicLongArray lastUserIds = new AtomicLongArray(couponIds.size());
+        Histogram histogram = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        LongAdder success = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+
+        MemorySampler memorySampler = MemorySampler.start();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long startedAt = System.nanoTime();
+        long endAt = startedAt + options.duration().toNanos();
+        for (int i = 0; i < options.threads(); i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < endAt) {
+                    int couponIdx = ThreadLocalRandom.current().nextInt(couponIds.size());
+                    long userId = nextUserId(lastUserIds, couponIdx);
+                    String body = "{\"couponId\":%d,\"userId\":%d}".formatted(couponIds.get(couponIdx), userId);
+
+                    long requestedAt = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                                        .build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - requestedAt));
+                        if (response.statusCode() != 200) {
+                            errors.increment();
+                        } else if (isSuccess(response.body())) {
+                            success.increment();
+                        } else {
+                            rejected.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(options.duration().toSeconds() + 60, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        memorySampler.stop();
+
+        report(endpoint, histogram, success.sum(), rejected.sum(), errors.sum(), elapsedSeconds, memorySampler);
+        return verify(endpoint, couponIds);
+    }
+
+    private long nextUserId(AtomicLongArray lastUserIds, int couponIdx) {
+        long last = lastUserIds.get(couponIdx);
+        if (last != 0 && ThreadLocalRandom.current().nextDouble() < options.duplicateRatio()) {
+            return last;
+        }
+
+        long userId = ThreadLocalRandom.current().nextLong(1, options.users() + 1);
+        lastUserIds.set(couponIdx, userId);
+        return userId;
+    }
+
+    private boolean isSuccess(String body) throws IOException {
+        JsonNode node = objectMapper.readTree(body);
+        return node.path("isSuccess").asBoolean(false) || node.path("success").asBoolean(false);
+    }
+
+    private void report(String endpoint, Histogram histogram, long success, long rejected, long errors,
+                        double elapsedSeconds, MemorySampler memorySampler) throws IOException {
+        long total = success + rejected + errors;
+        String label = "%s %s".formatted(endpoint, threadMode.name().toLowerCase());
+        System.out.printf("%n[%s] requests : %d, throughput : %.1f req/s, success : %d, rejected : %d, errors : %d%n",
+                label, total, total / elapsedSeconds, success, rejected, errors);
+        System.out.printf("[%s] latency(ms) p50 : %.3f, p99 : %.3f, p999 : %.3f, max : %.3f%n",
+                label,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+
+        System.out.printf("[%s] heap(MB) baseline : %.1f, peak : %.1f, per in-flight request(KB) : %.1f, peak platform threads : %d%n",
+                label,
+                memorySampler.baselineHeapBytes() / 1024.0 / 1024.0,
+                memorySampler.peakHeapBytes() / 1024.0 / 1024.0,
+                memorySampler.heapBytesPer(options.threads()) / 1024.0,
+                memorySampler.peakThreadCount());
+
+        Path path = Path.of(options.resultDir(),
+                (endpoint + "_" + threadMode.name().toLowerCase()).replaceAll("[^a-zA-Z0-9]+", "_") + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private boolean verify(String endpoint, List<Long> couponIds) throws InterruptedException {
+        StringRedisTemplate redisTemplate = environment.getBean(StringRedisTemplate.class);
+        JdbcTemplate jdbcTemplate = environment.getBean(JdbcTemplate.class);
+        boolean passed = true;
+
+        if (options.isAsync(endpoint)) {
+            for (Long couponId : couponIds) {
+                Long requested = redisTemplate.opsForSet().size(getIssueRequestKey(couponId));
+                if (requested != null && requested > options.totalQuantity()) {
+                    System.out.printf("[%s] 초과 발급 요청. couponId : %d, requested : %d%n", endpoint, couponId, requested);
+                    passed = false;
+                }
+            }
+            if (!options.consumer()) {
+                return passed;
+            }
+            awaitQueueDrained(couponIds);
+        }
+
+        String inClause = String.join(",", couponIds.stream().map(String::valueOf).toList());
+        List<Map<String, Object>> overIssued = jdbcTemplate.queryForList("""
+                SELECT c.id, c.total_quantity, c.issued_quantity, COUNT(ci.id) AS issue_count
+                FROM coupons c LEFT JOIN coupon_issues ci ON ci.coupon_id = c.id
+                WHERE c.id IN (%s)
+                GROUP BY c.id, c.total_quantity, c.issued_quantity
+                HAVING COUNT(ci.id) > c.total_quantity OR c.issued_quantity > c.total_quantity
+                """.formatted(inClause));
+        List<Map<String, Object>> duplicated = jdbcTemplate.queryForList("""
+                SELECT coupon_id, user_id, COUNT(*) AS issue_count
+                FROM coupon_issues
+                WHERE coupon_id IN (%s)
+                GROUP BY coupon_id, user_id
+                HAVING COUNT(*) > 1
+                """.formatted(inClause));
+
+        overIssued.forEach(row -> System.out.printf("[%s] 초과 발급. %s%n", endpoint, row));
+        duplicated.forEach(row -> System.out.printf("[%s] 중복 발급. %s%n", endpoint, row));
+        passed &= overIssued.isEmpty() && duplicated.isEmpty();
+        System.out.printf("[%s] 정합성 검증 %s%n", endpoint, passed ? "성공" : "실패");
+        return passed;
+    }
+
+    /**
+     * coupon.queue.type 에 맞는 큐 구현으로 남은 메시지 수를 확인한다.
+     */
+    private void awaitQueueDrained(List<Long> couponIds) throws InterruptedException {
+        CouponIssueQueue couponIssueQueue = environment.getBean(CouponIssueQueue.class);
+        long deadline = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        List<String> queueKeys = new ArrayList<>(couponIds.stream().map(couponIssueQueue::getQueueKey).toList());
+        while (System.nanoTime() < deadline) {
+            queueKeys.removeIf(key -> couponIssueQueue.size(key) == 0);
+            if (queueKeys.isEmpty()) {
+                // 마지막으로 꺼낸 요청이 저장될 때까지 기다린다.
+                Thread.sleep(3000);
+                return;
+            }
+            Thread.sleep(500);
+        }
+        System.out.printf("발급 요청 큐가 비워지지 않았습니다. queues : %s%n", queueKeys);
+    }
+}
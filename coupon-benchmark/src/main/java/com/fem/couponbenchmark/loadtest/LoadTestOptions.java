@@ -0,0 +1,64 @@
+package com.fem.couponbenchmark.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 옵션. --name=value 형식의 인자로 지정한다.
+ */
+public record LoadTestOptions(
+        List<String> endpoints,
+        int coupons,
+        int totalQuantity,
+        long users,
+        double duplicateRatio,
+        int threads,
+        Duration duration,
+        boolean consumer,
+        List<ThreadMode> threadModes,
+        String resultDir
+) {
+    /**
+     * api, consumer 가 요청을 처리하는 스레드 종류
+     */
+    public enum ThreadMode {
+        PLATFORM, VIRTUAL;
+
+        public boolean isVirtual() {
+            return this == VIRTUAL;
+        }
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--name=value 형식의 인자만 지원합니다. input : %s".formatted(arg));
+            }
+            int idx = arg.indexOf('=');
+            values.put(arg.substring(2, idx), arg.substring(idx + 1));
+        }
+
+        return new LoadTestOptions(
+                Arrays.asList(values.getOrDefault("endpoints", "/v1/issue,/v2/issue,/v3/issue,/v4/issue,/v1/issue-async").split(",")),
+                Integer.parseInt(values.getOrDefault("coupons", "10")),
+                Integer.parseInt(values.getOrDefault("total-quantity", "1000")),
+                Long.parseLong(values.getOrDefault("users", "100000")),
+                Double.parseDouble(values.getOrDefault("duplicate-ratio", "0.1")),
+                Integer.parseInt(values.getOrDefault("threads", "64")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "30"))),
+                Boolean.parseBoolean(values.getOrDefault("consumer", "false")),
+                Arrays.stream(values.getOrDefault("thread-modes", "platform").split(","))
+                        .map(mode -> ThreadMode.valueOf(mode.trim().toUpperCase()))
+                        .toList(),
+                values.getOrDefault("result-dir", "build/results/loadtest")
+        );
+    }
+
+    public boolean isAsync(String endpoint) {
+        return endpoint.contains("issue-async");
+    }
+}
@@ -0,0 +1,63 @@
+package com.fem.couponbenchmark.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 부하 테스트 동안 heap 사용량과 platform thread 개수의 최대값을 주기적으로 기록한다.
+ * 시작 전에 gc 를 실행해 기준 heap 사용량을 잡고, 최대 사용량과의 차이를 동시 요청 수로 나눠 요청당 메모리를 구한다.
+ * virtual thread 의 stack 은 heap 에 저장되므로 두 모드를 같은 기준으로 비교할 수 있다.
+ */
+public class MemorySampler {
+    private static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final AtomicInteger peakThreadCount = new AtomicInteger();
+    private final long baselineHeapBytes;
+
+    private MemorySampler() {
+        System.gc();
+        this.baselineHeapBytes = memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    public static MemorySampler start() {
+        MemorySampler sampler = new MemorySampler();
+        sampler.scheduler.scheduleAtFixedRate(sampler::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        return sampler;
+    }
+
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    public long baselineHeapBytes() {
+        return baselineHeapBytes;
+    }
+
+    public long peakHeapBytes() {
+        return peakHeapBytes.get();
+    }
+
+    public int peakThreadCount() {
+        return peakThreadCount.get();
+    }
+
+    public double heapBytesPer(int inFlightRequests) {
+        return Math.max(0, peakHeapBytes.get() - baselineHeapBytes) / (double) inFlightRequests;
+    }
+
+    private void sample() {
+        peakHeapBytes.accumulateAndGet(memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max);
+        peakThreadCount.accumulateAndGet(threadMXBean.getThreadCount(), Math::max);
+    }
+}
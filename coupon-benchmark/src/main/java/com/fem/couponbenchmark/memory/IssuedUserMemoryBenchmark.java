@@ -0,0 +1,87 @@
+package com.fem.couponbenchmark.memory;
+
+import com.fem.couponbenchmark.BenchmarkEnvironment;
+import com.fem.couponcore.CouponCoreConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+/**
+ * 발급 요청 사용자를 set 과 bitmap 으로 기록했을 때의 redis 메모리 사용량
+ * userId 가 0 부터 빈틈없이 증가하는 경우(dense)와 사용자 수의 sparsity 배 범위에 흩어진 경우(sparse)를 비교한다.
+ * 메모리는 MEMORY USAGE 로 key 하나의 크기를 측정한다.
+ *
+ * ./gradlew :coupon-benchmark:memoryBenchmark -PmemoryBenchmarkArgs="1000000 10"
+ */
+public class IssuedUserMemoryBenchmark {
+    private static final int PIPELINE_SIZE = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int sparsity = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        try (BenchmarkEnvironment environment = BenchmarkEnvironment.start(CouponCoreConfiguration.class)) {
+            StringRedisTemplate redisTemplate = environment.getBean(StringRedisTemplate.class);
+            long[] dense = LongStream.range(0, users).toArray();
+            long[] sparse = ThreadLocalRandom.current().longs(0, (long) users * sparsity).distinct().limit(users).toArray();
+
+            System.out.printf("%-8s %-8s %12s %14s %10s %18s%n", "layout", "type", "users", "bytes", "bytes/user", "MB/million users");
+            for (Layout layout : List.of(new Layout("dense", dense), new Layout("sparse", sparse))) {
+                print(layout.name(), "set", users, measureSet(redisTemplate, layout.userIds()));
+                print(layout.name(), "bitmap", users, measureBitmap(redisTemplate, layout.userIds()));
+            }
+        }
+    }
+
+    private record Layout(String name, long[] userIds) {
+    }
+
+    private static long measureSet(StringRedisTemplate redisTemplate, long[] userIds) {
+        byte[] key = "memory:set".getBytes(StandardCharsets.UTF_8);
+        for (int from = 0; from < userIds.length; from += PIPELINE_SIZE) {
+            long[] chunk = Arrays.copyOfRange(userIds, from, Math.min(from + PIPELINE_SIZE, userIds.length));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (long userId : chunk) {
+                    connection.setCommands().sAdd(key, String.valueOf(userId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        }
+        return measureAndDelete(redisTemplate, key);
+    }
+
+    private static long measureBitmap(StringRedisTemplate redisTemplate, long[] userIds) {
+        byte[] key = "memory:bitmap".getBytes(StandardCharsets.UTF_8);
+        for (int from = 0; from < userIds.length; from += PIPELINE_SIZE) {
+            long[] chunk = Arrays.copyOfRange(userIds, from, Math.min(from + PIPELINE_SIZE, userIds.length));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (long userId : chunk) {
+                    connection.stringCommands().setBit(key, userId, true);
+                }
+                return null;
+            });
+        }
+        return measureAndDelete(redisTemplate, key);
+    }
+
+    private static long measureAndDelete(StringRedisTemplate redisTemplate, byte[] key) {
+        Long bytes = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            Long usage = (Long) connection.execute("MEMORY", "USAGE".getBytes(StandardCharsets.UTF_8), key,
+                    "SAMPLES".getBytes(StandardCharsets.UTF_8), "0".getBytes(StandardCharsets.UTF_8));
+            connection.keyCommands().del(key);
+            return usage;
+        });
+        return bytes == null ? 0 : bytes;
+    }
+
+    private static void print(String layout, String type, int users, long bytes) {
+        System.out.printf("%-8s %-8s %12d %14d %10.2f %18.2f%n", layout, type, users, bytes,
+                (double) bytes / users, bytes * (1_000_000.0 / users) / 1024 / 1024);
+    }
+}
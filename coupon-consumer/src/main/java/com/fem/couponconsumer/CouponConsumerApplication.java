@@ -4,7 +4,9 @@ import com.fem.couponcore.CouponCoreConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @Import(CouponCoreConfiguration.class)
 @SpringBootApplication
 public class CouponConsumerApplication {
@@ -0,0 +1,124 @@
+package com.fem.couponconsumer.component;
+
+import com.fem.couponcore.component.CouponIssueMetrics;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.exception.ErrorCode;
+import com.fem.couponcore.repository.redis.CouponIssueStatusRepository;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueueMessage;
+import com.fem.couponcore.service.CouponIssueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestFailedQueueKey;
+
+/**
+ * 쿠폰 발급 요청 큐를 batch 단위로 꺼내 발급 내역을 저장한다.
+ * 저장이 끝나거나 실패 큐로 옮긴 요청만 ack 하므로 stream 큐에서는 처리 중 종료되어도 요청이 남아 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueListener {
+    private final CouponRedisRepository couponRedisRepository;
+    private final CouponIssueQueue couponIssueQueue;
+    private final CouponIssueService couponIssueService;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final CouponIssueStatusRepository couponIssueStatusRepository;
+
+    @Value("${coupon.consumer.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${coupon.consumer.fixed-delay:1000}")
+    public void issue() {
+        for (String queueKey : couponIssueQueue.findQueueKeys()) {
+            drain(queueKey);
+        }
+    }
+
+    private void drain(String queueKey) {
+        List<CouponIssueQueueMessage> messages;
+        do {
+            messages = couponIssueQueue.poll(queueKey, batchSize);
+            if (!messages.isEmpty()) {
+                issue(messages);
+                couponIssueQueue.ack(queueKey, messages);
+            }
+        } while (messages.size() == batchSize);
+    }
+
+    private void issue(List<CouponIssueQueueMessage> messages) {
+        Map<Long, List<Long>> userIdsByCouponId = new HashMap<>();
+        Map<Long, List<byte[]>> valuesByCouponId = new HashMap<>();
+        for (CouponIssueQueueMessage message : messages) {
+            byte[] value = message.value();
+            CouponIssueRequest request = readRequest(value);
+            if (request != null) {
+                userIdsByCouponId.computeIfAbsent(request.couponId(), key -> new ArrayList<>()).add(request.userId());
+                valuesByCouponId.computeIfAbsent(request.couponId(), key -> new ArrayList<>()).add(value);
+            }
+        }
+
+        userIdsByCouponId.forEach((couponId, userIds) -> {
+            try {
+                couponIssueService.saveCouponIssues(couponId, userIds);
+                couponIssueMetrics.recordPersisted(couponId, userIds.size());
+                log.info("쿠폰 발급 완료. couponId : {}, count : {}", couponId, userIds.size());
+            } catch (Exception e) {
+                log.error("쿠폰 발급 실패. couponId : {}, count : {}", couponId, userIds.size(), e);
+                couponIssueMetrics.recordPersistFailure(couponId, userIds.size());
+                valuesByCouponId.get(couponId)
+                        .forEach(value -> couponRedisRepository.rPush(getIssueRequestFailedQueueKey(couponId), value));
+                markFailed(couponId, userIds, e);
+                return;
+            }
+            markIssued(couponId, userIds);
+        });
+    }
+
+    /**
+     * 발급 결과 기록은 조회용이므로 실패해도 발급 처리에는 영향을 주지 않는다.
+     */
+    private void markIssued(Long couponId, List<Long> userIds) {
+        try {
+            couponIssueStatusRepository.markIssued(couponId, userIds);
+        } catch (Exception e) {
+            log.warn("발급 결과 기록 실패. couponId : {}, count : {}", couponId, userIds.size(), e);
+        }
+    }
+
+    private void markFailed(Long couponId, List<Long> userIds, Exception cause) {
+        ErrorCode errorCode = cause instanceof CouponIssueException exception ? exception.getErrorCode() : FAIL_COUPON_ISSUE_REQUEST;
+        try {
+            couponIssueStatusRepository.markFailed(couponId, userIds, errorCode);
+        } catch (Exception e) {
+            log.warn("발급 결과 기록 실패. couponId : {}, count : {}", couponId, userIds.size(), e);
+        }
+    }
+
+    private CouponIssueRequest readRequest(byte[] value) {
+        if (value == null) {
+            log.error("발급 요청이 비어 있습니다.");
+            return null;
+        }
+        try {
+            return couponIssueRequestCodec.decode(value);
+        } catch (IllegalArgumentException e) {
+            log.error("발급 요청을 읽을 수 없습니다. length : {}", value.length, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fem.couponconsumer.component;
+
+import com.fem.couponcore.service.CouponIssueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 발급 내역 저장 batch 마다 기록된 발급 수량 증가분을 주기적으로 모아 쿠폰별 update 한 번으로 반영한다.
+ * 쿠폰 row 의 갱신 횟수는 발급 건수가 아니라 반영 주기 수에 비례한다.
+ * 증가분은 발급 내역과 같은 트랜잭션에 기록되므로 반영 전에 비정상 종료되어도 다음 주기에 다른 consumer 가 반영한다.
+ */
+@Slf4j
+@Component
+public class CouponIssuedQuantityFlusher {
+    private final CouponIssueService couponIssueService;
+    private final int flushBatchSize;
+
+    public CouponIssuedQuantityFlusher(CouponIssueService couponIssueService,
+                                       @Value("${coupon.consumer.flush-batch-size:1000}") int flushBatchSize) {
+        this.couponIssueService = couponIssueService;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.consumer.flush-interval:1000}")
+    public void flush() {
+        try {
+            int flushed;
+            do {
+                flushed = couponIssueService.flushIssuedQuantity(flushBatchSize);
+            } while (flushed == flushBatchSize);
+        } catch (Exception e) {
+            log.error("발급 수량 반영 실패", e);
+        }
+    }
+}
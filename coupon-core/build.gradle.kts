@@ -10,7 +10,10 @@ dependencies {
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
     implementation("com.fasterxml.jackson.core:jackson-databind")
     implementation("org.springframework.boot:spring-boot-starter")
-    implementation("org.redisson:redisson-spring-boot-starter:3.16.4")
+    implementation("org.redisson:redisson-spring-boot-starter:3.27.2")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.google.guava:guava:33.2.1-jre")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
 }
 
@@ -0,0 +1,315 @@
+package com.fem.couponcore.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 로컬 캐시(L1) 와 redis 캐시(L2) 를 차례로 조회하는 캐시
+ * 값이 변경되거나 제거되면 L2 를 갱신하고 다른 노드의 L1 은 pub/sub 으로 무효화한다.
+ * 같은 key 의 캐시 miss 는 노드 안에서 한 번만 로드하고, L2 도 비어 있으면 reload lease 를 가진 노드만 원본을 조회한다.
+ * L1 에 저장된 지 refreshAhead 가 지난 값은 반환한 뒤 백그라운드에서 다시 로드한다.
+ */
+@Slf4j
+public class LayeredCache implements Cache {
+    private static final long REMOTE_POLL_INTERVAL_MILLIS = 20;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final StatsCounter localStatsCounter;
+    private final Cache remoteCache;
+    private final LayeredCacheManager cacheManager;
+    private final Duration refreshAhead;
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public LayeredCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+                        StatsCounter localStatsCounter, Cache remoteCache, LayeredCacheManager cacheManager,
+                        Duration refreshAhead) {
+        this.name = name;
+        this.localCache = localCache;
+        this.localStatsCounter = localStatsCounter;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+        this.refreshAhead = refreshAhead;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        LocalEntry entry = getLocal(toLocalKey(key));
+        if (entry != null) {
+            return new SimpleValueWrapper(entry.value());
+        }
+
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper != null) {
+            putLocal(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("캐시 값의 타입이 일치하지 않습니다. required : %s, value : %s".formatted(type, value));
+        }
+        return (T) value;
+    }
+
+    /**
+     * 동시에 들어온 같은 key 의 요청은 먼저 들어온 요청이 로드한 값을 함께 받는다.
+     * caffeine 의 compute 안에서 로드하면 대기하는 virtual thread 가 carrier thread 를 점유하므로 future 로 기다린다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        LocalEntry entry = getLocal(localKey);
+        if (entry != null) {
+            if (entry.isRefreshDue()) {
+                refreshAsync(key, localKey, valueLoader);
+            }
+            return (T) entry.value();
+        }
+
+        return (T) loadOnce(localKey, () -> recordLoad(() -> {
+            Object value = loadRemote(key, valueLoader);
+            putLocal(key, value);
+            return value;
+        }));
+    }
+
+    /**
+     * L1 을 caffeine 의 loader 없이 채우므로 load 통계는 직접 기록한다.
+     */
+    private Object recordLoad(Supplier<Object> loader) {
+        long startTime = System.nanoTime();
+        try {
+            Object value = loader.get();
+            localStatsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+            return value;
+        } catch (RuntimeException e) {
+            localStatsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            throw e;
+        }
+    }
+
+    private Object loadOnce(String localKey, Supplier<Object> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(localKey, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        try {
+            Object value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(localKey, future);
+        }
+    }
+
+    private Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * L2 에도 값이 없으면 reload lease 를 얻은 노드만 원본을 조회한다.
+     * lease 를 얻지 못한 노드는 lease 가 만료될 때까지 L2 에 값이 저장되기를 기다리고, 그래도 없으면 직접 조회한다.
+     */
+    private <T> Object loadRemote(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper != null) {
+            return wrapper.get();
+        }
+
+        String localKey = toLocalKey(key);
+        String leaseToken = cacheManager.tryAcquireReloadLease(name, localKey);
+        if (leaseToken == null) {
+            ValueWrapper loaded = awaitRemote(key);
+            if (loaded != null) {
+                return loaded.get();
+            }
+        }
+
+        try {
+            T value = valueLoader.call();
+            remoteCache.put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            cacheManager.releaseReloadLease(name, localKey, leaseToken);
+        }
+    }
+
+    private ValueWrapper awaitRemote(Object key) {
+        long deadline = System.currentTimeMillis() + cacheManager.getReloadLeaseTtl().toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(REMOTE_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            ValueWrapper wrapper = remoteCache.get(key);
+            if (wrapper != null) {
+                return wrapper;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 만료가 가까운 값을 백그라운드에서 다시 로드한다. key 마다 한 번에 하나만 실행한다.
+     * reload lease 를 얻으면 원본을 조회해 L2 와 L1 을 갱신하고, 얻지 못하면 다른 노드가 갱신한 L2 값을 L1 에 저장한다.
+     */
+    private void refreshAsync(Object key, String localKey, Callable<?> valueLoader) {
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+
+        cacheManager.getRefreshExecutor().execute(() -> {
+            try {
+                refresh(key, localKey, valueLoader);
+            } catch (Exception e) {
+                log.error("캐시 갱신 실패. cacheName : {}, key : {}", name, localKey, e);
+            } finally {
+                refreshing.remove(localKey);
+            }
+        });
+    }
+
+    private void refresh(Object key, String localKey, Callable<?> valueLoader) {
+        String leaseToken = cacheManager.tryAcquireReloadLease(name, localKey);
+        if (leaseToken == null) {
+            ValueWrapper wrapper = remoteCache.get(key);
+            if (wrapper != null) {
+                putLocal(key, wrapper.get());
+            }
+            return;
+        }
+
+        try {
+            recordLoad(() -> {
+                try {
+                    Object value = valueLoader.call();
+                    remoteCache.put(key, value);
+                    putLocal(key, value);
+                    return value;
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+            });
+        } finally {
+            cacheManager.releaseReloadLease(name, localKey, leaseToken);
+        }
+    }
+
+    /**
+     * 값을 직접 변경하면 다른 노드의 L1 에 남은 이전 값을 무효화한다.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        putLocal(key, value);
+        cacheManager.publishInvalidation(name, toLocalKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        putLocal(key, existing == null ? value : existing.get());
+        if (existing == null) {
+            cacheManager.publishInvalidation(name, toLocalKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        evictLocal(toLocalKey(key));
+        cacheManager.publishInvalidation(name, toLocalKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        clearLocal();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    public void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public LayeredCacheStatistics getStatistics() {
+        CacheStats localStats = localCache.stats();
+        CacheStatistics remoteStats = remoteCache instanceof RedisCache redisCache ? redisCache.getStatistics() : null;
+        return new LayeredCacheStatistics(name, localCache.estimatedSize(), localStats, remoteStats);
+    }
+
+    private LocalEntry getLocal(String localKey) {
+        return (LocalEntry) localCache.getIfPresent(localKey);
+    }
+
+    private void putLocal(Object key, Object value) {
+        if (value != null) {
+            localCache.put(toLocalKey(key), new LocalEntry(value, System.currentTimeMillis() + refreshAhead.toMillis()));
+        }
+    }
+
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private record LocalEntry(Object value, long refreshAt) {
+
+        private boolean isRefreshDue() {
+            return System.currentTimeMillis() >= refreshAt;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fem.couponcore.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 로컬 캐시를 redis 캐시 앞에 두는 캐시 매니저
+ * 캐시 무효화 메시지를 구독하여 다른 노드에서 변경된 값을 로컬 캐시에서 제거한다. 자신이 발행한 메시지는 무시한다.
+ * 캐시를 원본에서 다시 로드할 노드는 redis 의 reload lease 로 하나만 정한다.
+ */
+@Slf4j
+public class LayeredCacheManager implements CacheManager, MessageListener {
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    static final String UNLEASED = "";
+
+    /**
+     * KEYS[1] : reload lease, ARGV[1] : owner token
+     * 만료된 뒤 다른 노드가 얻은 lease 를 지우지 않도록 token 이 같을 때만 삭제한다.
+     */
+    private static final RedisScript<Long> RELEASE_RELOAD_LEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final CacheManager remoteCacheManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localExpireAfterWrite;
+    private final Duration refreshAhead;
+    private final boolean reloadLeaseEnabled;
+    private final Duration reloadLeaseTtl;
+    private final Map<String, LayeredCache> caches = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LayeredCacheManager(CacheManager remoteCacheManager, RedisTemplate<String, String> redisTemplate,
+                               MeterRegistry meterRegistry, long localMaximumSize, Duration localExpireAfterWrite,
+                               Duration refreshAhead, boolean reloadLeaseEnabled, Duration reloadLeaseTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localExpireAfterWrite = localExpireAfterWrite;
+        this.refreshAhead = refreshAhead;
+        this.reloadLeaseEnabled = reloadLeaseEnabled;
+        this.reloadLeaseTtl = reloadLeaseTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    public List<LayeredCacheStatistics> getStatistics() {
+        return caches.values().stream()
+                .map(LayeredCache::getStatistics)
+                .toList();
+    }
+
+    private LayeredCache createCache(String name) {
+        StatsCounter localStatsCounter = new ConcurrentStatsCounter();
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localExpireAfterWrite)
+                .recordStats(() -> localStatsCounter)
+                .build();
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        bindMetrics(name, localCache, remoteCache);
+        return new LayeredCache(name, localCache, localStatsCounter, remoteCache, this, refreshAhead);
+    }
+
+    private void bindMetrics(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> localCache, Cache remoteCache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name, Tags.of("tier", "local"));
+        if (remoteCache instanceof RedisCache redisCache) {
+            new RedisCacheMetrics(redisCache, Tags.of("tier", "remote")).bindTo(meterRegistry);
+        }
+    }
+
+    /**
+     * reload lease 를 얻으면 owner token 을, 다른 노드가 가지고 있으면 null 을 반환한다.
+     * lease 를 사용하지 않거나 redis 에 접근할 수 없으면 직접 로드하도록 UNLEASED 를 반환한다.
+     */
+    String tryAcquireReloadLease(String name, String key) {
+        if (!reloadLeaseEnabled) {
+            return UNLEASED;
+        }
+
+        try {
+            String token = UUID.randomUUID().toString();
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(getReloadLeaseKey(name, key), token, reloadLeaseTtl);
+            return Boolean.FALSE.equals(acquired) ? null : token;
+        } catch (Exception e) {
+            log.error("캐시 reload lease 획득 실패. cacheName : {}, key : {}", name, key, e);
+            return UNLEASED;
+        }
+    }
+
+    void releaseReloadLease(String name, String key, String token) {
+        if (token == null || UNLEASED.equals(token)) {
+            return;
+        }
+
+        try {
+            redisTemplate.execute(RELEASE_RELOAD_LEASE_SCRIPT, List.of(getReloadLeaseKey(name, key)), token);
+        } catch (Exception e) {
+            log.error("캐시 reload lease 반납 실패. cacheName : {}, key : {}", name, key, e);
+        }
+    }
+
+    Duration getReloadLeaseTtl() {
+        return reloadLeaseTtl;
+    }
+
+    ExecutorService getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    private String getReloadLeaseKey(String name, String key) {
+        return "cache:reload-lease:%s::%s".formatted(name, key);
+    }
+
+    void publishInvalidation(String name, String key) {
+        try {
+            String message = objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, name, key));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.error("캐시 무효화 메시지 발행 실패. cacheName : {}, key : {}", name, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            CacheInvalidationMessage invalidation = objectMapper.readValue(body, CacheInvalidationMessage.class);
+            LayeredCache cache = caches.get(invalidation.name());
+            if (cache == null || nodeId.equals(invalidation.nodeId())) {
+                return;
+            }
+
+            if (invalidation.key() == null) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(invalidation.key());
+            }
+        } catch (JsonProcessingException e) {
+            log.error("캐시 무효화 메시지를 읽을 수 없습니다. message : {}", body, e);
+        }
+    }
+
+    public record CacheInvalidationMessage(String nodeId, String name, String key) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.fem.couponcore.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.data.redis.cache.CacheStatistics;
+
+public record LayeredCacheStatistics(
+        String name,
+        TierStatistics local,
+        TierStatistics remote
+) {
+    public LayeredCacheStatistics(String name, long localSize, CacheStats localStats, CacheStatistics remoteStats) {
+        this(name, TierStatistics.of(localSize, localStats), TierStatistics.of(remoteStats));
+    }
+
+    public record TierStatistics(
+            Long size,
+            long hits,
+            long misses,
+            double hitRate,
+            long loads,
+            long evictions
+    ) {
+        private static TierStatistics of(long size, CacheStats stats) {
+            return new TierStatistics(size, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                    stats.loadCount(), stats.evictionCount());
+        }
+
+        private static TierStatistics of(CacheStatistics stats) {
+            if (stats == null) {
+                return null;
+            }
+
+            long requests = stats.getHits() + stats.getMisses();
+            double hitRate = requests == 0 ? 1.0 : (double) stats.getHits() / requests;
+            return new TierStatistics(null, stats.getHits(), stats.getMisses(), hitRate,
+                    stats.getPuts(), stats.getDeletes());
+        }
+    }
+}
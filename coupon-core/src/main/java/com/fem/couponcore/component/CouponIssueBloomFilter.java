@@ -0,0 +1,139 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.repository.mysql.CouponIssueRepository;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 쿠폰별 발급 사용자 bloom filter
+ * 대부분의 사용자는 발급 이력이 없으므로 "발급되지 않음" 을 데이터베이스 조회 없이 판단한다.
+ * filter 는 처음 사용할 때 발급 내역으로 만들고 이후 발급할 때마다 사용자를 추가한다.
+ * 다른 노드나 consumer 가 저장한 발급 내역은 filter 에 없을 수 있으므로 중복 발급은 unique index 로 한 번 더 막는다.
+ * unique index(sql/coupon_issues_unique_key.sql) 가 적용된 데이터베이스에서만 사용하도록 기본값은 사용하지 않음이다.
+ */
+@Slf4j
+@Component
+public class CouponIssueBloomFilter {
+    private final CouponIssueRepository couponIssueRepository;
+    private final CouponJpaRepository couponJpaRepository;
+    private final CouponLockStripes couponLockStripes;
+    private final boolean enabled;
+    private final int defaultExpectedInsertions;
+    private final double fpp;
+    private final Map<Long, UserFilter> filters = new ConcurrentHashMap<>();
+    private final Counter negativeCounter;
+    private final Counter positiveCounter;
+
+    public CouponIssueBloomFilter(CouponIssueRepository couponIssueRepository,
+                                  CouponJpaRepository couponJpaRepository,
+                                  CouponLockStripes couponLockStripes,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${coupon.bloom-filter.enabled:false}") boolean enabled,
+                                  @Value("${coupon.bloom-filter.expected-insertions:100000}") int defaultExpectedInsertions,
+                                  @Value("${coupon.bloom-filter.fpp:0.01}") double fpp) {
+        this.couponIssueRepository = couponIssueRepository;
+        this.couponJpaRepository = couponJpaRepository;
+        this.couponLockStripes = couponLockStripes;
+        this.enabled = enabled;
+        this.defaultExpectedInsertions = defaultExpectedInsertions;
+        this.fpp = fpp;
+        this.negativeCounter = meterRegistry.counter("coupon.bloom.filter.checks", "result", "negative");
+        this.positiveCounter = meterRegistry.counter("coupon.bloom.filter.checks", "result", "positive");
+        Gauge.builder("coupon.bloom.filter.count", filters, Map::size).register(meterRegistry);
+        Gauge.builder("coupon.bloom.filter.bytes", this, CouponIssueBloomFilter::getTotalBytes).register(meterRegistry);
+        Gauge.builder("coupon.bloom.filter.elements", this, CouponIssueBloomFilter::getTotalElementCount).register(meterRegistry);
+        Gauge.builder("coupon.bloom.filter.fpp.expected", this, CouponIssueBloomFilter::getMaxExpectedFpp).register(meterRegistry);
+        Gauge.builder("coupon.bloom.filter.fpp.configured", () -> fpp).register(meterRegistry);
+    }
+
+    /**
+     * false 이면 발급되지 않은 사용자이다. true 이면 발급됐을 수 있으므로 데이터베이스로 확인한다.
+     */
+    public boolean mightContain(Long couponId, Long userId) {
+        if (!enabled) {
+            return true;
+        }
+
+        boolean result = getFilter(couponId).filter().mightContain(userId);
+        (result ? positiveCounter : negativeCounter).increment();
+        return result;
+    }
+
+    /**
+     * 발급 내역으로 filter 를 미리 만든다. 이미 만들어져 있으면 아무것도 하지 않는다.
+     */
+    public void warmUp(Long couponId) {
+        if (enabled) {
+            getFilter(couponId);
+        }
+    }
+
+    public void put(Long couponId, Long userId) {
+        UserFilter userFilter = filters.get(couponId);
+        if (userFilter != null) {
+            userFilter.filter().put(userId);
+        }
+    }
+
+    private record UserFilter(BloomFilter<Long> filter, long bytes) {
+    }
+
+    private UserFilter getFilter(Long couponId) {
+        UserFilter userFilter = filters.get(couponId);
+        if (userFilter != null) {
+            return userFilter;
+        }
+
+        couponLockStripes.execute(couponId, () -> filters.computeIfAbsent(couponId, this::build));
+        return filters.get(couponId);
+    }
+
+    private UserFilter build(Long couponId) {
+        List<Long> userIds = couponIssueRepository.findIssuedUserIds(couponId);
+        int expectedInsertions = couponJpaRepository.findById(couponId)
+                .map(Coupon::getTotalQuantity)
+                .orElse(defaultExpectedInsertions);
+        int insertions = Math.max(Math.max(expectedInsertions, userIds.size()), 1);
+        BloomFilter<Long> filter = BloomFilter.create(Funnels.longFunnel(), insertions, fpp);
+        userIds.forEach(filter::put);
+        long bytes = estimateBytes(insertions, fpp);
+        log.info("발급 사용자 bloom filter 생성. couponId : {}, users : {}, expectedInsertions : {}, fpp : {}, bytes : {}",
+                couponId, userIds.size(), insertions, fpp, bytes);
+        return new UserFilter(filter, bytes);
+    }
+
+    private double getTotalBytes() {
+        return filters.values().stream().mapToLong(UserFilter::bytes).sum();
+    }
+
+    private double getTotalElementCount() {
+        return filters.values().stream().mapToLong(userFilter -> userFilter.filter().approximateElementCount()).sum();
+    }
+
+    /**
+     * 가장 많이 채워진 filter 의 현재 오탐률. 설정한 오탐률보다 커지면 예상 발급 수량을 늘린다.
+     */
+    private double getMaxExpectedFpp() {
+        return filters.values().stream().mapToDouble(userFilter -> userFilter.filter().expectedFpp()).max().orElse(0);
+    }
+
+    /**
+     * guava 는 bit 배열 크기를 공개하지 않으므로 생성 시 사용하는 공식(m = -n ln p / (ln 2)^2)으로 계산한다.
+     */
+    static long estimateBytes(long expectedInsertions, double fpp) {
+        double bits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        return (long) Math.ceil(bits / 8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 쿠폰 발급 결과를 쿠폰, 결과(ErrorCode) 별로 집계한다.
+ * 쿠폰 태그는 최대 개수를 넘으면 other 로 합쳐 registry 가 커지지 않도록 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponIssueMetrics {
+    private static final String OTHER = "other";
+    private static final String SUCCESS = "SUCCESS";
+    private static final String UNKNOWN_ERROR = "UNKNOWN_ERROR";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> couponTags = ConcurrentHashMap.newKeySet();
+
+    @Value("${coupon.metrics.max-coupon-tags:100}")
+    private int maxCouponTags;
+
+    public void record(String strategy, Long couponId, Runnable issue) {
+        try {
+            issue.run();
+            increment("coupon.issue.requests", strategy, couponId, SUCCESS, 1);
+        } catch (CouponIssueException e) {
+            increment("coupon.issue.requests", strategy, couponId, e.getErrorCode().name(), 1);
+            throw e;
+        } catch (RuntimeException e) {
+            increment("coupon.issue.requests", strategy, couponId, UNKNOWN_ERROR, 1);
+            throw e;
+        }
+    }
+
+    public void recordResult(String strategy, Long couponId, ErrorCode errorCode) {
+        increment("coupon.issue.requests", strategy, couponId, errorCode == null ? SUCCESS : errorCode.name(), 1);
+    }
+
+    public void recordPersisted(Long couponId, int count) {
+        increment("coupon.issue.persisted", "consumer", couponId, SUCCESS, count);
+    }
+
+    public void recordPersistFailure(Long couponId, int count) {
+        increment("coupon.issue.persisted", "consumer", couponId, UNKNOWN_ERROR, count);
+    }
+
+    private void increment(String name, String strategy, Long couponId, String result, int count) {
+        meterRegistry.counter(name, "strategy", strategy, "coupon", couponTag(couponId), "result", result)
+                .increment(count);
+    }
+
+    private String couponTag(Long couponId) {
+        String tag = String.valueOf(couponId);
+        if (couponTags.contains(tag)) {
+            return tag;
+        }
+
+        if (couponTags.size() < maxCouponTags && couponTags.add(tag)) {
+            return tag;
+        }
+        return OTHER;
+    }
+}
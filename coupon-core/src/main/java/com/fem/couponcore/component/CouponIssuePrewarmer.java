@@ -0,0 +1,97 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.CouponQuantityLeaseRepository;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import com.fem.couponcore.service.CouponCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestCountKey;
+
+/**
+ * 발급 시작이 가까운 쿠폰의 캐시와 redis 상태를 미리 준비한다.
+ * 발급이 시작되는 순간 캐시 miss 가 몰려 데이터베이스를 조회하지 않도록 모든 캐시 계층에 쿠폰 정보를 저장하고,
+ * 발급 요청 스크립트 등록, 분할 쿠폰의 발급 수량 counter, lease 남은 수량, 발급 사용자 bloom filter 를 미리 만든다.
+ * 로컬 캐시는 만료되므로 발급 시작 전까지 주기마다 다시 저장한다.
+ */
+@Slf4j
+@Component
+public class CouponIssuePrewarmer {
+    private final CouponJpaRepository couponJpaRepository;
+    private final CouponCacheService couponCacheService;
+    private final CouponRedisRepository couponRedisRepository;
+    private final CouponQuantityLeaseRepository couponQuantityLeaseRepository;
+    private final CouponQuantityLeaseManager couponQuantityLeaseManager;
+    private final CouponIssueBloomFilter couponIssueBloomFilter;
+    private final boolean enabled;
+    private final Duration lookahead;
+
+    public CouponIssuePrewarmer(CouponJpaRepository couponJpaRepository,
+                                CouponCacheService couponCacheService,
+                                CouponRedisRepository couponRedisRepository,
+                                CouponQuantityLeaseRepository couponQuantityLeaseRepository,
+                                CouponQuantityLeaseManager couponQuantityLeaseManager,
+                                CouponIssueBloomFilter couponIssueBloomFilter,
+                                @Value("${coupon.prewarm.enabled:false}") boolean enabled,
+                                @Value("${coupon.prewarm.lookahead:10m}") Duration lookahead) {
+        this.couponJpaRepository = couponJpaRepository;
+        this.couponCacheService = couponCacheService;
+        this.couponRedisRepository = couponRedisRepository;
+        this.couponQuantityLeaseRepository = couponQuantityLeaseRepository;
+        this.couponQuantityLeaseManager = couponQuantityLeaseManager;
+        this.couponIssueBloomFilter = couponIssueBloomFilter;
+        this.enabled = enabled;
+        this.lookahead = lookahead;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.prewarm.interval:60000}")
+    public void prewarmScheduled() {
+        if (enabled) {
+            prewarm();
+        }
+    }
+
+    /**
+     * 지금부터 lookahead 안에 발급이 시작되는 쿠폰을 준비하고 준비한 쿠폰 수를 반환한다.
+     */
+    public int prewarm() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Coupon> coupons = couponJpaRepository.findAllByDateIssueStartBetween(now, now.plus(lookahead));
+        if (coupons.isEmpty()) {
+            return 0;
+        }
+
+        couponRedisRepository.loadScripts();
+        int prewarmed = 0;
+        for (Coupon coupon : coupons) {
+            try {
+                prewarm(coupon);
+                prewarmed++;
+            } catch (Exception e) {
+                log.error("쿠폰 발급 준비 실패. couponId : {}", coupon.getId(), e);
+            }
+        }
+        log.info("쿠폰 발급 준비 완료. coupons : {}, dateIssueStart before : {}", prewarmed, now.plus(lookahead));
+        return prewarmed;
+    }
+
+    private void prewarm(Coupon coupon) {
+        Long couponId = coupon.getId();
+        couponCacheService.refreshCouponCache(couponId);
+        if (coupon.getUserShardCount() != null && coupon.getUserShardCount() > 1) {
+            couponRedisRepository.setIfAbsent(getIssueRequestCountKey(couponId), "0");
+        }
+        if (couponQuantityLeaseManager.isEnabled() && coupon.getTotalQuantity() != null) {
+            couponQuantityLeaseRepository.initializeRemaining(couponId, coupon.getTotalQuantity());
+        }
+        couponIssueBloomFilter.warmUp(couponId);
+    }
+}
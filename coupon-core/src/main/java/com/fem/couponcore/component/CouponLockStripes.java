@@ -0,0 +1,47 @@
+package com.fem.couponcore.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 쿠폰 id 로 나눈 고정 개수의 lock
+ * 서로 다른 쿠폰의 요청은 대부분 다른 lock 을 사용하므로 함께 대기하지 않는다.
+ * synchronized 와 달리 virtual thread 가 대기할 때 carrier thread 를 점유하지 않는다.
+ */
+@Component
+public class CouponLockStripes {
+    private final Lock[] locks;
+    private final int mask;
+
+    public CouponLockStripes(@Value("${coupon.lock.stripes:256}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new Lock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void execute(Long couponId, Runnable logic) {
+        Lock lock = getLock(couponId);
+        lock.lock();
+        try {
+            logic.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Lock getLock(Long couponId) {
+        int hash = Long.hashCode(couponId);
+        hash ^= hash >>> 16;
+        return locks[hash & mask];
+    }
+
+    int size() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,174 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.repository.redis.CouponQuantityLeaseRepository;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueLeaseExpiryKeyPattern;
+
+/**
+ * 쿠폰의 남은 수량을 chunk 단위로 미리 lease 해서 노드 안에서 나눠준다.
+ * 요청마다 redis 에서 수량을 확인하지 않고, lease 가 비었을 때만 redis 에서 새 lease 를 받는다.
+ * lease 는 노드가 종료되거나 만료되면 사용하지 않은 수량을 남은 수량으로 되돌린다.
+ * 발급 요청 스크립트가 lease 의 사용 수량을 함께 기록하므로 반납된 수량과 발급된 수량이 겹치지 않는다.
+ */
+@Slf4j
+@Component
+public class CouponQuantityLeaseManager {
+    private final CouponQuantityLeaseRepository couponQuantityLeaseRepository;
+    private final CouponRedisRepository couponRedisRepository;
+    private final CouponLockStripes couponLockStripes;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration ttl;
+    private final Duration reclaimGrace;
+    private final Duration soldOutBackoff;
+    private final Map<Long, CouponQuantityLease> leases = new ConcurrentHashMap<>();
+    private final Map<Long, Long> soldOutUntil = new ConcurrentHashMap<>();
+
+    public CouponQuantityLeaseManager(CouponQuantityLeaseRepository couponQuantityLeaseRepository,
+                                      CouponRedisRepository couponRedisRepository,
+                                      CouponLockStripes couponLockStripes,
+                                      @Value("${coupon.lease.enabled:false}") boolean enabled,
+                                      @Value("${coupon.lease.chunk-size:500}") int chunkSize,
+                                      @Value("${coupon.lease.ttl:30s}") Duration ttl,
+                                      @Value("${coupon.lease.reclaim-grace:5s}") Duration reclaimGrace,
+                                      @Value("${coupon.lease.sold-out-backoff:1s}") Duration soldOutBackoff) {
+        this.couponQuantityLeaseRepository = couponQuantityLeaseRepository;
+        this.couponRedisRepository = couponRedisRepository;
+        this.couponLockStripes = couponLockStripes;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.ttl = ttl;
+        this.reclaimGrace = reclaimGrace;
+        this.soldOutBackoff = soldOutBackoff;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * lease 에서 수량 하나를 꺼내고 lease id 를 반환한다.
+     * lease 가 비었거나 만료됐으면 새로 lease 하고, 남은 수량이 없으면 null 을 반환한다.
+     */
+    public String acquire(Long couponId, Integer totalQuantity) {
+        CouponQuantityLease lease = leases.get(couponId);
+        if (lease != null && lease.tryAcquire()) {
+            return lease.id;
+        }
+        if (soldOutUntil.getOrDefault(couponId, 0L) > System.currentTimeMillis()) {
+            return null;
+        }
+
+        AtomicReference<String> leaseId = new AtomicReference<>();
+        couponLockStripes.execute(couponId, () -> leaseId.set(renewAndAcquire(couponId, totalQuantity)));
+        return leaseId.get();
+    }
+
+    /**
+     * 발급되지 않은 수량을 lease 로 되돌린다. 이미 교체된 lease 의 수량은 만료 시 redis 에서 회수된다.
+     */
+    public void giveBack(Long couponId, String leaseId) {
+        CouponQuantityLease lease = leases.get(couponId);
+        if (lease != null && lease.id.equals(leaseId)) {
+            lease.available.incrementAndGet();
+        }
+    }
+
+    /**
+     * 만료 후 유예 시간이 지난 lease 를 회수한다. 노드가 비정상 종료되어 반납하지 못한 lease 도 여기서 회수된다.
+     */
+    @Scheduled(fixedDelayString = "${coupon.lease.reclaim-interval:5000}")
+    public void reclaimExpiredLeases() {
+        if (!enabled) {
+            return;
+        }
+
+        long before = System.currentTimeMillis() - reclaimGrace.toMillis();
+        for (String expiryKey : couponRedisRepository.scanKeys(getIssueLeaseExpiryKeyPattern())) {
+            Long couponId = Long.parseLong(expiryKey.substring(expiryKey.lastIndexOf(':') + 1));
+            for (String leaseId : couponQuantityLeaseRepository.findExpiredLeaseIds(couponId, before)) {
+                int returned = couponQuantityLeaseRepository.release(couponId, leaseId);
+                log.info("만료된 수량 lease 회수. couponId : {}, leaseId : {}, returned : {}", couponId, leaseId, returned);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        leases.forEach((couponId, lease) -> {
+            try {
+                couponQuantityLeaseRepository.release(couponId, lease.id);
+            } catch (RuntimeException e) {
+                log.error("수량 lease 반납 실패. couponId : {}, leaseId : {}", couponId, lease.id, e);
+            }
+        });
+        leases.clear();
+    }
+
+    private String renewAndAcquire(Long couponId, Integer totalQuantity) {
+        CouponQuantityLease current = leases.get(couponId);
+        if (current != null && current.tryAcquire()) {
+            return current.id;
+        }
+        if (current != null && current.isExpired()) {
+            leases.remove(couponId);
+            couponQuantityLeaseRepository.release(couponId, current.id);
+        }
+
+        String leaseId = UUID.randomUUID().toString();
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        int granted = couponQuantityLeaseRepository.acquire(couponId, leaseId, totalQuantity, chunkSize, expiresAt);
+        if (granted == 0) {
+            soldOutUntil.put(couponId, System.currentTimeMillis() + soldOutBackoff.toMillis());
+            return null;
+        }
+
+        CouponQuantityLease lease = new CouponQuantityLease(leaseId, granted, expiresAt);
+        leases.put(couponId, lease);
+        return lease.tryAcquire() ? lease.id : null;
+    }
+
+    private static class CouponQuantityLease {
+        private final String id;
+        private final AtomicInteger available;
+        private final long expiresAt;
+
+        private CouponQuantityLease(String id, int granted, long expiresAt) {
+            this.id = id;
+            this.available = new AtomicInteger(granted);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean tryAcquire() {
+            if (isExpired()) {
+                return false;
+            }
+
+            int current;
+            do {
+                current = available.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.exception.CouponIssueException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
+
+/**
+ * 발급 수량이 소진된 쿠폰을 노드 로컬에 기록하여 이후 요청을 redis, lock 접근 없이 거절한다.
+ * 소진 여부와 발급 수량 변경에 따른 소진 기록 제거는 pub/sub 으로 다른 노드에 전파된다.
+ * 소진 기록은 expireAfterWrite 가 지나면 사라지고, 이후 요청이 redis 에서 다시 소진을 확인하면 다시 기록된다.
+ */
+@Slf4j
+@Component
+public class CouponSoldOutRegistry implements MessageListener {
+    public static final String SOLD_OUT_CHANNEL = "coupon:sold-out";
+    public static final String RELEASE_CHANNEL = "coupon:sold-out:release";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final Cache<Long, Boolean> soldOutCouponIds;
+
+    public CouponSoldOutRegistry(RedisTemplate<String, String> redisTemplate,
+                                 RedisMessageListenerContainer redisMessageListenerContainer,
+                                 @Value("${coupon.sold-out.maximum-size:10000}") long maximumSize,
+                                 @Value("${coupon.sold-out.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.redisTemplate = redisTemplate;
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.soldOutCouponIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(SOLD_OUT_CHANNEL));
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RELEASE_CHANNEL));
+    }
+
+    public boolean isSoldOut(Long couponId) {
+        return soldOutCouponIds.getIfPresent(couponId) != null;
+    }
+
+    public void checkSoldOut(Long couponId) {
+        if (isSoldOut(couponId)) {
+            throw new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, "발급 가능한 수량이 소진된 쿠폰입니다. couponId : %s"
+                    .formatted(couponId));
+        }
+    }
+
+    public void markSoldOut(Long couponId) {
+        if (soldOutCouponIds.asMap().putIfAbsent(couponId, Boolean.TRUE) == null) {
+            publish(SOLD_OUT_CHANNEL, couponId);
+        }
+    }
+
+    /**
+     * 발급 수량이 변경된 경우 모든 노드의 소진 기록을 제거한다.
+     */
+    public void release(Long couponId) {
+        soldOutCouponIds.invalidate(couponId);
+        publish(RELEASE_CHANNEL, couponId);
+    }
+
+    private void publish(String channel, Long couponId) {
+        try {
+            redisTemplate.convertAndSend(channel, couponId.toString());
+        } catch (Exception e) {
+            log.error("쿠폰 소진 메시지 발행 실패. channel : {}, couponId : {}", channel, couponId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            Long couponId = Long.valueOf(body);
+            if (SOLD_OUT_CHANNEL.equals(channel)) {
+                soldOutCouponIds.put(couponId, Boolean.TRUE);
+            } else if (RELEASE_CHANNEL.equals(channel)) {
+                soldOutCouponIds.invalidate(couponId);
+            }
+        } catch (NumberFormatException e) {
+            log.error("쿠폰 소진 메시지를 읽을 수 없습니다. channel : {}, message : {}", channel, body, e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.fem.couponcore.component;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
@@ -13,16 +15,20 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class DistributeLockExecutor {
     private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
 
     public void execute(String lockName, long waitMilliSecond, long leaseMilliSecond, Runnable logic) {
         RLock lock = redissonClient.getLock(lockName);
+        String keyFamily = getKeyFamily(lockName);
         try {
-            boolean isLocked = lock.tryLock(waitMilliSecond, leaseMilliSecond, TimeUnit.MICROSECONDS);
+            Timer.Sample waitSample = Timer.start(meterRegistry);
+            boolean isLocked = lock.tryLock(waitMilliSecond, leaseMilliSecond, TimeUnit.MILLISECONDS);
+            waitSample.stop(meterRegistry.timer("coupon.lock.wait", "key", keyFamily, "acquired", String.valueOf(isLocked)));
             if (!isLocked) {
                 throw new IllegalStateException("[%s] lock 획득 실패".formatted(lockName));
             }
 
-            logic.run();
+            meterRegistry.timer("coupon.lock.hold", "key", keyFamily).record(logic);
         } catch (InterruptedException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
@@ -36,4 +42,11 @@ public class DistributeLockExecutor {
             }
         }
     }
+
+    /**
+     * 쿠폰마다 lock 이름이 다르므로 숫자를 제거한 key 형태로 집계한다. (lock:1 -> lock:)
+     */
+    private String getKeyFamily(String lockName) {
+        return lockName.replaceAll("\\d+", "");
+    }
 }
@@ -0,0 +1,39 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.service.WaitingRoomService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대기열이 있는 쿠폰마다 주기적으로 입장을 처리한다.
+ * 초당 입장 수는 redis 에서 쿠폰별로 집계하므로 여러 노드에서 실행해도 입장 수가 늘어나지 않는다.
+ */
+@Slf4j
+@Component
+public class WaitingRoomAdmitter {
+    private final WaitingRoomService waitingRoomService;
+    private final boolean enabled;
+
+    public WaitingRoomAdmitter(WaitingRoomService waitingRoomService,
+                               @Value("${coupon.waiting-room.enabled:false}") boolean enabled) {
+        this.waitingRoomService = waitingRoomService;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.waiting-room.admission-interval:100}")
+    public void admit() {
+        if (!enabled) {
+            return;
+        }
+
+        for (Long couponId : waitingRoomService.findWaitingCouponIds()) {
+            try {
+                waitingRoomService.admit(couponId);
+            } catch (Exception e) {
+                log.error("대기열 입장 처리 실패. couponId : {}", couponId, e);
+            }
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.fem.couponcore.configuration;
 
 
+import com.fem.couponcore.cache.LayeredCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -20,15 +25,39 @@ import java.time.Duration;
 public class CacheConfiguration {
     private final RedisConnectionFactory redisConnectionFactory;
 
+    @Value("${coupon.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${coupon.cache.local.expire-after-write:5m}")
+    private Duration localExpireAfterWrite;
+
+    @Value("${coupon.cache.refresh-ahead:4m}")
+    private Duration refreshAhead;
+
+    @Value("${coupon.cache.reload-lease.enabled:true}")
+    private boolean reloadLeaseEnabled;
+
+    @Value("${coupon.cache.reload-lease.ttl:3s}")
+    private Duration reloadLeaseTtl;
+
     @Bean
-    public CacheManager redisCacheManager() {
+    public LayeredCacheManager cacheManager(RedisTemplate<String, String> redisTemplate,
+                                            RedisMessageListenerContainer redisMessageListenerContainer,
+                                            MeterRegistry meterRegistry) {
         RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
                 .entryTtl(Duration.ofMinutes(30));
 
-        return RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(redisConnectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(redisConnectionFactory)
                 .cacheDefaults(configuration)
+                .enableStatistics()
                 .build();
+        redisCacheManager.initializeCaches();
+
+        LayeredCacheManager cacheManager = new LayeredCacheManager(redisCacheManager, redisTemplate, meterRegistry,
+                localMaximumSize, localExpireAfterWrite, refreshAhead, reloadLeaseEnabled, reloadLeaseTtl);
+        redisMessageListenerContainer.addMessageListener(cacheManager, new ChannelTopic(LayeredCacheManager.INVALIDATION_CHANNEL));
+        return cacheManager;
     }
 }
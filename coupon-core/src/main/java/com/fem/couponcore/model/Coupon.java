@@ -31,6 +31,12 @@ public class Coupon extends BaseTimeEntity {
 
     private Integer totalQuantity;
 
+    /**
+     * 발급 요청 사용자 set 의 분할 개수. 값이 2 이상이면 발급 수량은 counter 로 관리한다.
+     * 발급이 시작된 이후에는 변경하지 않는다.
+     */
+    private Integer userShardCount;
+
     @Column(nullable = false)
     private int issuedQuantity;
 
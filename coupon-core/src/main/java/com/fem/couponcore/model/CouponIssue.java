@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Getter
-@Table(name = "coupon_issues")
+@Table(name = "coupon_issues", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_coupon_issues_coupon_id_user_id", columnNames = {"coupon_id", "user_id"})
+}, indexes = {
+        @Index(name = "idx_coupon_issues_user_id_id", columnList = "user_id, id, date_used, coupon_id, date_issued")
+})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
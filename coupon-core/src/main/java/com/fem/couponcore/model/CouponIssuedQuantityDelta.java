@@ -0,0 +1,29 @@
+package com.fem.couponcore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 발급 내역 저장 batch 마다 늘어난 발급 수량
+ * 발급 내역과 같은 트랜잭션에서 저장하고, 쿠폰의 발급 수량에 반영한 트랜잭션에서 삭제하므로 한 번만 반영된다.
+ */
+@Entity
+@Getter
+@Table(name = "coupon_issued_quantity_deltas")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponIssuedQuantityDelta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long couponId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -0,0 +1,43 @@
+package com.fem.couponcore.repository.mysql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * IDENTITY 전략을 사용하는 엔티티는 hibernate 의 batch insert 가 동작하지 않으므로
+ * 대량 발급 내역은 jdbc batch 로 저장한다. (rewriteBatchedStatements=true 로 multi-row insert 로 변환된다.)
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponIssueJdbcRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Long couponId, Long userId) {
+        String sql = """
+                INSERT INTO coupon_issues (coupon_id, user_id, date_issued, date_created, date_updated)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(sql, couponId, userId, now, now, now);
+    }
+
+    public void batchInsert(Long couponId, List<Long> userIds) {
+        String sql = """
+                INSERT INTO coupon_issues (coupon_id, user_id, date_issued, date_created, date_updated)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, userIds, userIds.size(), (ps, userId) -> {
+            ps.setLong(1, couponId);
+            ps.setLong(2, userId);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+}
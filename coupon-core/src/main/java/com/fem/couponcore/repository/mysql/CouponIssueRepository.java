@@ -1,12 +1,17 @@
 package com.fem.couponcore.repository.mysql;
 
 import com.fem.couponcore.model.CouponIssue;
+import com.fem.couponcore.service.dto.UserCoupon;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Projections;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import static com.fem.couponcore.model.QCoupon.coupon;
 import static com.fem.couponcore.model.QCouponIssue.couponIssue;
 
 @Repository
@@ -26,4 +31,58 @@ public class CouponIssueRepository {
 
         return Optional.of(issue);
     }
+
+    public boolean existsCouponIssue(Long couponId, Long userId) {
+        Integer found = queryFactory.selectOne()
+                .from(couponIssue)
+                .where(couponIssue.couponId.eq(couponId))
+                .where(couponIssue.userId.eq(userId))
+                .fetchFirst();
+        return found != null;
+    }
+
+    public List<Long> findIssuedUserIds(Long couponId) {
+        return queryFactory.select(couponIssue.userId)
+                .from(couponIssue)
+                .where(couponIssue.couponId.eq(couponId))
+                .fetch();
+    }
+
+    public List<Long> findIssuedUserIds(Long couponId, List<Long> userIds) {
+        return queryFactory.select(couponIssue.userId)
+                .from(couponIssue)
+                .where(couponIssue.couponId.eq(couponId))
+                .where(couponIssue.userId.in(userIds))
+                .fetch();
+    }
+
+    /**
+     * (user_id, id) index 를 따라 cursor 이후의 발급 내역을 id 역순으로 조회한다.
+     * offset 을 사용하지 않으므로 뒤쪽 페이지도 첫 페이지와 같은 비용으로 조회한다.
+     * 쿠폰 정보는 조회한 발급 내역 수 만큼만 primary key 로 join 한다.
+     */
+    public List<UserCoupon> findUserCoupons(Long userId, Boolean used, Long cursor, int size) {
+        BooleanBuilder condition = new BooleanBuilder(couponIssue.userId.eq(userId));
+        if (cursor != null) {
+            condition.and(couponIssue.id.lt(cursor));
+        }
+        if (used != null) {
+            condition.and(used ? couponIssue.dateUsed.isNotNull() : couponIssue.dateUsed.isNull());
+        }
+
+        return queryFactory.select(Projections.constructor(UserCoupon.class,
+                        couponIssue.id,
+                        couponIssue.couponId,
+                        coupon.title,
+                        coupon.discountAmount,
+                        coupon.minAvailableAmount,
+                        couponIssue.dateIssued,
+                        couponIssue.dateUsed))
+                .from(couponIssue)
+                .join(coupon).on(coupon.id.eq(couponIssue.couponId))
+                .where(condition)
+                .orderBy(couponIssue.id.desc())
+                .limit(size)
+                .fetch();
+    }
 }
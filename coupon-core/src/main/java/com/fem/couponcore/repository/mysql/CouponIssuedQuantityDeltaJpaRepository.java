@@ -0,0 +1,21 @@
+package com.fem.couponcore.repository.mysql;
+
+import com.fem.couponcore.model.CouponIssuedQuantityDelta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CouponIssuedQuantityDeltaJpaRepository extends JpaRepository<CouponIssuedQuantityDelta, Long> {
+
+    /**
+     * 반영할 발급 수량 증가분을 저장 순서대로 조회하고 lock 을 잡는다.
+     * 다른 consumer 는 lock 이 풀린 뒤 이미 삭제된 증가분을 다시 읽지 않는다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM CouponIssuedQuantityDelta d ORDER BY d.id")
+    List<CouponIssuedQuantityDelta> findAllWithLock(Pageable pageable);
+}
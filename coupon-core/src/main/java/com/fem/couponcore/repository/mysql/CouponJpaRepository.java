@@ -4,12 +4,33 @@ import com.fem.couponcore.model.Coupon;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface CouponJpaRepository extends JpaRepository<Coupon, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT c from Coupon c where c.id = :id")
     Optional<Coupon> findByIdWithLock(Long id);
+
+    List<Coupon> findAllByDateIssueStartBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * 발급 가능한 수량과 기간일 때만 발급 수량을 증가시킨다. 증가시킨 row 수를 반환한다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Coupon c SET c.issuedQuantity = c.issuedQuantity + 1
+            where c.id = :id
+            and (c.totalQuantity is null or c.issuedQuantity < c.totalQuantity)
+            and c.dateIssueStart < :now and c.dateIssueEnd > :now
+            """)
+    int issueIfAvailable(Long id, LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Coupon c SET c.issuedQuantity = c.issuedQuantity + :quantity where c.id = :id")
+    int increaseIssuedQuantity(Long id, int quantity);
 }
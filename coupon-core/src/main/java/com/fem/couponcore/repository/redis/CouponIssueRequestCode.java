@@ -0,0 +1,45 @@
+package com.fem.couponcore.repository.redis;
+
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.exception.ErrorCode;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 쿠폰 발급 요청 스크립트의 결과 코드
+ */
+@RequiredArgsConstructor
+public enum CouponIssueRequestCode {
+    SUCCESS("1", null),
+    DUPLICATED_COUPON_ISSUE("2", ErrorCode.DUPLICATED_COUPON_ISSUE),
+    INVALID_COUPON_ISSUE_QUANTITY("3", ErrorCode.INVALID_COUPON_ISSUE_QUANTITY),
+    /**
+     * 수량이 소진된 것이 아니라 lease 가 반납된 것이므로 발급 요청 실패로 응답한다.
+     */
+    LEASE_EXPIRED("4", ErrorCode.FAIL_COUPON_ISSUE_REQUEST);
+
+    public final String code;
+    public final ErrorCode errorCode;
+
+    public static CouponIssueRequestCode find(String code) {
+        for (CouponIssueRequestCode requestCode : values()) {
+            if (requestCode.code.equals(code)) {
+                return requestCode;
+            }
+        }
+
+        throw new IllegalArgumentException("존재하지 않는 코드입니다. %s".formatted(code));
+    }
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+
+    public void checkRequestResult(Long couponId, Long userId) {
+        if (isSuccess()) {
+            return;
+        }
+
+        throw new CouponIssueException(errorCode, "%s couponId : %s, userId : %s"
+                .formatted(errorCode.message, couponId, userId));
+    }
+}
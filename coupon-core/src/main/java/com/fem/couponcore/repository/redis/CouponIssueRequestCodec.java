@@ -0,0 +1,82 @@
+package com.fem.couponcore.repository.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+
+/**
+ * 발급 요청 큐의 직렬화 형식
+ * binary (version 1, 33 bytes) : version(1) | couponId(8) | userId(8) | requestedAt(8) | requestId(8)
+ * 이전 형식인 json 은 첫 바이트가 '{' 인 것으로 구분하여 함께 읽는다.
+ */
+@Component
+public class CouponIssueRequestCodec {
+    public static final byte VERSION_1 = 1;
+    public static final int VERSION_1_LENGTH = 33;
+    private static final byte JSON_PREFIX = '{';
+
+    private final Format format;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public CouponIssueRequestCodec(@Value("${coupon.queue.format:binary}") String format) {
+        this.format = Format.valueOf(format.toUpperCase());
+    }
+
+    public byte[] encode(CouponIssueRequest request) {
+        if (format == Format.JSON) {
+            return encodeJson(request);
+        }
+
+        return ByteBuffer.allocate(VERSION_1_LENGTH)
+                .put(VERSION_1)
+                .putLong(request.couponId())
+                .putLong(request.userId())
+                .putLong(request.requestedAt())
+                .putLong(request.requestId())
+                .array();
+    }
+
+    public CouponIssueRequest decode(byte[] value) {
+        if (value.length > 0 && value[0] == JSON_PREFIX) {
+            return decodeJson(value);
+        }
+
+        if (value.length != VERSION_1_LENGTH || value[0] != VERSION_1) {
+            throw new IllegalArgumentException("지원하지 않는 발급 요청 형식입니다. length : %s".formatted(value.length));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(value, 1, VERSION_1_LENGTH - 1);
+        long couponId = buffer.getLong();
+        long userId = buffer.getLong();
+        long requestedAt = buffer.getLong();
+        long requestId = buffer.getLong();
+        return new CouponIssueRequest(couponId, userId, requestId, requestedAt);
+    }
+
+    private byte[] encodeJson(CouponIssueRequest request) {
+        try {
+            return objectMapper.writeValueAsBytes(request);
+        } catch (IOException e) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "input: %s".formatted(request));
+        }
+    }
+
+    private CouponIssueRequest decodeJson(byte[] value) {
+        try {
+            return objectMapper.readValue(value, CouponIssueRequest.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("발급 요청을 읽을 수 없습니다.", e);
+        }
+    }
+
+    public enum Format {
+        BINARY, JSON
+    }
+}
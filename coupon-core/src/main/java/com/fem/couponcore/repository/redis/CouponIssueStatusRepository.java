@@ -0,0 +1,71 @@
+package com.fem.couponcore.repository.redis;
+
+import com.fem.couponcore.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueStatusKey;
+
+/**
+ * consumer 가 처리한 발급 요청의 결과를 쿠폰별 hash 에 userId 를 field 로 저장한다.
+ * 발급되면 "I", 실패하면 "F:" 와 실패 사유(ErrorCode) 를 저장한다. 처리 전인 요청은 field 가 없다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponIssueStatusRepository {
+    public static final String ISSUED = "I";
+    public static final String FAILED_PREFIX = "F:";
+    private static final Duration STATUS_TTL = Duration.ofDays(7);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public void markIssued(Long couponId, List<Long> userIds) {
+        save(couponId, userIds, ISSUED);
+    }
+
+    public void markFailed(Long couponId, List<Long> userIds, ErrorCode errorCode) {
+        save(couponId, userIds, FAILED_PREFIX + errorCode.name());
+    }
+
+    public String find(Long couponId, Long userId) {
+        return record("hget", () -> (String) redisTemplate.opsForHash().get(getIssueStatusKey(couponId), userId.toString()));
+    }
+
+    /**
+     * userIds 순서대로 결과를 반환한다. 처리 전인 요청은 null 이다.
+     */
+    public List<String> findAll(Long couponId, List<Long> userIds) {
+        List<Object> fields = userIds.stream().<Object>map(Object::toString).toList();
+        List<Object> statuses = record("hmget", () -> redisTemplate.opsForHash().multiGet(getIssueStatusKey(couponId), fields));
+        return statuses.stream()
+                .map(status -> (String) status)
+                .toList();
+    }
+
+    private void save(Long couponId, List<Long> userIds, String status) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> statuses = new HashMap<>();
+        userIds.forEach(userId -> statuses.put(userId.toString(), status));
+        String key = getIssueStatusKey(couponId);
+        record("hset", () -> {
+            redisTemplate.opsForHash().putAll(key, statuses);
+            return redisTemplate.expire(key, STATUS_TTL);
+        });
+    }
+
+    private <T> T record(String operation, Supplier<T> supplier) {
+        return meterRegistry.timer("coupon.redis", "operation", operation).record(supplier);
+    }
+}
@@ -0,0 +1,10 @@
+package com.fem.couponcore.repository.redis;
+
+/**
+ * 발급 요청 사용자를 기록하는 redis 자료구조
+ * SET 은 userId 문자열을 set 에 저장하고, BITMAP 은 userId 를 offset 으로 하는 bit 하나로 저장한다.
+ * BITMAP 은 userId 가 0 이상 2^32 미만의 밀집된 숫자일 때 사용한다.
+ */
+public enum CouponIssueTrackingType {
+    SET, BITMAP
+}
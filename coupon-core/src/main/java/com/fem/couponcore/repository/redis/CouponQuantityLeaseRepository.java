@@ -0,0 +1,133 @@
+package com.fem.couponcore.repository.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.fem.couponcore.util.CouponRedisUtils.*;
+
+/**
+ * 쿠폰 수량 lease 를 redis 에 기록한다.
+ * 남은 수량 counter 에서 lease 만큼 차감하고, lease 별 부여 수량(granted)과 사용 수량(used)은 hash 에, 만료 시각은 zset 에 저장한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponQuantityLeaseRepository {
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RedisScript<Long> acquireLeaseScript = acquireLeaseScript();
+    private final RedisScript<Long> returnLeaseScript = returnLeaseScript();
+    private final RedisScript<Long> initializeRemainingScript = initializeRemainingScript();
+
+    /**
+     * 남은 수량에서 최대 chunkSize 만큼 lease 한다. 남은 수량이 없으면 0 을 반환한다.
+     */
+    public int acquire(Long couponId, String leaseId, Integer totalQuantity, int chunkSize, long expiresAt) {
+        Long granted = record("lease_acquire", () -> redisTemplate.execute(
+                acquireLeaseScript,
+                List.of(getIssueLeaseRemainingKey(couponId), getIssueRequestKey(couponId),
+                        getIssueLeaseKey(couponId), getIssueLeaseExpiryKey(couponId)),
+                totalQuantity.toString(),
+                String.valueOf(chunkSize),
+                leaseId,
+                String.valueOf(expiresAt)
+        ));
+        return granted == null ? 0 : granted.intValue();
+    }
+
+    /**
+     * lease 를 삭제하고 사용하지 않은 수량을 남은 수량으로 되돌린다. 되돌린 수량을 반환한다.
+     */
+    public int release(Long couponId, String leaseId) {
+        Long returned = record("lease_release", () -> redisTemplate.execute(
+                returnLeaseScript,
+                List.of(getIssueLeaseRemainingKey(couponId), getIssueLeaseKey(couponId), getIssueLeaseExpiryKey(couponId)),
+                leaseId
+        ));
+        return returned == null ? 0 : returned.intValue();
+    }
+
+    /**
+     * 남은 수량이 없으면 이미 발급 요청된 수량을 제외한 값으로 초기화한다. 남은 수량을 반환한다.
+     */
+    public long initializeRemaining(Long couponId, Integer totalQuantity) {
+        Long remaining = record("lease_initialize", () -> redisTemplate.execute(
+                initializeRemainingScript,
+                List.of(getIssueLeaseRemainingKey(couponId), getIssueRequestKey(couponId)),
+                totalQuantity.toString()
+        ));
+        return remaining == null ? 0 : remaining;
+    }
+
+    public Set<String> findExpiredLeaseIds(Long couponId, long before) {
+        Set<String> leaseIds = redisTemplate.opsForZSet().rangeByScore(getIssueLeaseExpiryKey(couponId), 0, before);
+        return leaseIds == null ? Set.of() : leaseIds;
+    }
+
+    private <T> T record(String operation, Supplier<T> supplier) {
+        return meterRegistry.timer("coupon.redis", "operation", operation).record(supplier);
+    }
+
+    /**
+     * KEYS[1] : 남은 수량, KEYS[2] : 발급 요청 set, KEYS[3] : lease hash, KEYS[4] : lease 만료 zset
+     * ARGV[1] : 최대 발급 수량, ARGV[2] : lease 크기, ARGV[3] : lease id, ARGV[4] : 만료 시각
+     * 남은 수량이 없으면 이미 발급 요청된 수량(SCARD)을 제외한 값으로 초기화한다.
+     */
+    private RedisScript<Long> acquireLeaseScript() {
+        String script = """
+                if redis.call('EXISTS', KEYS[1]) == 0 then
+                    redis.call('SET', KEYS[1], math.max(tonumber(ARGV[1]) - redis.call('SCARD', KEYS[2]), 0))
+                end
+                local granted = math.min(tonumber(redis.call('GET', KEYS[1])), tonumber(ARGV[2]))
+                if granted <= 0 then
+                    return 0
+                end
+                redis.call('DECRBY', KEYS[1], granted)
+                redis.call('HSET', KEYS[3], ARGV[3] .. ':granted', granted, ARGV[3] .. ':used', 0)
+                redis.call('ZADD', KEYS[4], ARGV[4], ARGV[3])
+                return granted
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    /**
+     * KEYS[1] : 남은 수량, KEYS[2] : lease hash, KEYS[3] : lease 만료 zset, ARGV[1] : lease id
+     * 사용 수량은 발급 요청 스크립트가 같은 hash 에 기록하므로 반납 이후에는 lease 로 발급되지 않는다.
+     */
+    private RedisScript<Long> returnLeaseScript() {
+        String script = """
+                local granted = redis.call('HGET', KEYS[2], ARGV[1] .. ':granted')
+                redis.call('ZREM', KEYS[3], ARGV[1])
+                if not granted then
+                    return 0
+                end
+                local used = tonumber(redis.call('HGET', KEYS[2], ARGV[1] .. ':used') or '0')
+                local unused = tonumber(granted) - used
+                redis.call('HDEL', KEYS[2], ARGV[1] .. ':granted', ARGV[1] .. ':used')
+                if unused > 0 then
+                    redis.call('INCRBY', KEYS[1], unused)
+                end
+                return unused
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    /**
+     * KEYS[1] : 남은 수량, KEYS[2] : 발급 요청 set, ARGV[1] : 최대 발급 수량
+     */
+    private RedisScript<Long> initializeRemainingScript() {
+        String script = """
+                if redis.call('EXISTS', KEYS[1]) == 0 then
+                    redis.call('SET', KEYS[1], math.max(tonumber(ARGV[1]) - redis.call('SCARD', KEYS[2]), 0))
+                end
+                return tonumber(redis.call('GET', KEYS[1]))
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+}
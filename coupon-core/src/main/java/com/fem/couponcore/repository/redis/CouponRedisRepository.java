@@ -1,27 +1,275 @@
 package com.fem.couponcore.repository.redis;
 
+import com.fem.couponcore.repository.redis.dto.CouponIssueScriptRequest;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueueType;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
 @Repository
 @RequiredArgsConstructor
 public class CouponRedisRepository {
     private final RedisTemplate<String, String> redisTemplate;
+    private final RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RedisScript<String> issueRequestScript = issueRequestScript();
+    private final RedisScript<String> issueShardedRequestScript = issueShardedRequestScript();
+    private final RedisScript<String> issueBitmapRequestScript = issueBitmapRequestScript();
 
     public Long sAdd(String key, String value) {
-        return redisTemplate.opsForSet().add(key, value);
+        return record("sadd", () -> redisTemplate.opsForSet().add(key, value));
     }
 
     public Long sCard(String key) {
-        return redisTemplate.opsForSet().size(key);
+        return record("scard", () -> redisTemplate.opsForSet().size(key));
     }
 
     public Boolean sIsMember(String key, String value) {
-        return redisTemplate.opsForSet().isMember(key, value);
+        return record("sismember", () -> redisTemplate.opsForSet().isMember(key, value));
+    }
+
+    public List<Boolean> sMIsMember(String key, List<String> values) {
+        Map<Object, Boolean> members = record("smismember", () -> redisTemplate.opsForSet().isMember(key, values.toArray()));
+        return values.stream()
+                .map(value -> members != null && Boolean.TRUE.equals(members.get(value)))
+                .toList();
+    }
+
+    public long getCount(String key) {
+        String count = record("get", () -> redisTemplate.opsForValue().get(key));
+        return count == null ? 0 : Long.parseLong(count);
+    }
+
+    public Boolean setIfAbsent(String key, String value) {
+        return record("setnx", () -> redisTemplate.opsForValue().setIfAbsent(key, value));
+    }
+
+    public Long decr(String key) {
+        return record("decr", () -> redisTemplate.opsForValue().decrement(key));
+    }
+
+    /**
+     * 분할된 사용자 set 에 발급 요청을 기록하고 발급 수량 counter 를 증가시킨 뒤 발급 큐에 적재한다.
+     * 이미 기록된 사용자이거나 최대 발급 수량에 도달했으면 기록하지 않는다.
+     */
+    public CouponIssueRequestCode issueShardedRequest(String shardKey, String countKey, String queueKey, CouponIssueQueueType queueType,
+                                                      Long userId, byte[] value, Integer totalQuantity) {
+        String code = record("issue_sharded_script", () -> redisTemplate.execute(
+                issueShardedRequestScript,
+                RedisSerializer.byteArray(),
+                RedisSerializer.string(),
+                List.of(shardKey, countKey, queueKey),
+                toBytes(userId.toString()),
+                value,
+                toBytes(totalQuantity == null ? "" : totalQuantity.toString()),
+                toBytes(queueType.name())
+        ));
+        return CouponIssueRequestCode.find(code);
+    }
+
+    public Boolean getBit(String key, long offset) {
+        return record("getbit", () -> redisTemplate.opsForValue().getBit(key, offset));
+    }
+
+    public List<Boolean> getBits(String key, List<Long> offsets) {
+        List<Object> bits = record("getbit_pipeline", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] rawKey = toBytes(key);
+            offsets.forEach(offset -> connection.stringCommands().getBit(rawKey, offset));
+            return null;
+        }));
+        return bits.stream()
+                .map(Boolean.TRUE::equals)
+                .toList();
+    }
+
+    public Boolean clearBit(String key, long offset) {
+        return record("setbit", () -> redisTemplate.opsForValue().setBit(key, offset, false));
+    }
+
+    /**
+     * 사용자 bitmap 에 발급 요청을 기록하고 발급 수량 counter 를 증가시킨다.
+     * 이미 기록된 사용자이거나 최대 발급 수량에 도달했으면 기록하지 않는다.
+     */
+    public CouponIssueRequestCode issueBitmapRequest(String bitmapKey, String countKey, long offset, Integer totalQuantity) {
+        String code = record("issue_bitmap_script", () -> redisTemplate.execute(
+                issueBitmapRequestScript,
+                List.of(bitmapKey, countKey),
+                String.valueOf(offset),
+                totalQuantity == null ? "" : totalQuantity.toString()
+        ));
+        return CouponIssueRequestCode.find(code);
+    }
+
+    public Long rPush(String key, byte[] value) {
+        return record("rpush", () -> byteArrayRedisTemplate.opsForList().rightPush(key, value));
+    }
+
+    public List<byte[]> lPop(String key, long count) {
+        List<byte[]> values = record("lpop", () -> byteArrayRedisTemplate.opsForList().leftPop(key, count));
+        return values == null ? List.of() : values;
+    }
+
+    public long lLen(String key) {
+        Long size = record("llen", () -> byteArrayRedisTemplate.opsForList().size(key));
+        return size == null ? 0 : size;
+    }
+
+    public Set<String> scanKeys(String pattern) {
+        Set<String> keys = new HashSet<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+
+    public CouponIssueRequestCode issueRequest(CouponIssueScriptRequest request) {
+        String code = record("issue_request_script", () -> redisTemplate.execute(
+                issueRequestScript,
+                RedisSerializer.byteArray(),
+                RedisSerializer.string(),
+                request.keys(),
+                request.args().toArray()
+        ));
+        return CouponIssueRequestCode.find(code);
+    }
+
+    /**
+     * 발급 요청 스크립트를 pipeline 으로 한 번에 실행한다.
+     * 요청마다 스크립트는 원자적으로 실행되고 결과는 요청 순서대로 반환된다.
+     */
+    public List<CouponIssueRequestCode> issueRequests(List<CouponIssueScriptRequest> requests) {
+        redisTemplate.execute((RedisCallback<String>) connection ->
+                connection.scriptingCommands().scriptLoad(toBytes(issueRequestScript.getScriptAsString())));
+
+        List<Object> codes = record("issue_request_script_pipeline", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (CouponIssueScriptRequest request : requests) {
+                List<byte[]> keysAndArgs = new ArrayList<>();
+                request.keys().forEach(key -> keysAndArgs.add(toBytes(key)));
+                keysAndArgs.addAll(request.args());
+                connection.scriptingCommands().evalSha(issueRequestScript.getSha1(), ReturnType.VALUE,
+                        request.keys().size(), keysAndArgs.toArray(byte[][]::new));
+            }
+            return null;
+        }));
+        return codes.stream()
+                .map(code -> CouponIssueRequestCode.find((String) code))
+                .toList();
+    }
+
+    /**
+     * 발급 요청 스크립트를 redis 에 미리 등록하여 첫 EVALSHA 가 NOSCRIPT 로 실패하지 않게 한다.
+     */
+    public void loadScripts() {
+        redisTemplate.execute((RedisCallback<String>) connection -> {
+            connection.scriptingCommands().scriptLoad(toBytes(issueRequestScript.getScriptAsString()));
+            return connection.scriptingCommands().scriptLoad(toBytes(issueShardedRequestScript.getScriptAsString()));
+        });
+    }
+
+    public RedisScript<String> getIssueRequestScript() {
+        return issueRequestScript;
+    }
+
+    private byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private <T> T record(String operation, Supplier<T> supplier) {
+        return meterRegistry.timer("coupon.redis", "operation", operation).record(supplier);
+    }
+
+    /**
+     * 수량 검증, 중복 발급 검증, 발급 기록, 발급 큐 적재를 하나의 스크립트로 원자적으로 처리한다.
+     * KEYS[1] : 발급 요청 set, KEYS[2] : 발급 요청 queue
+     * ARGV[1] : userId, ARGV[2] : 발급 요청, ARGV[3] : 최대 발급 수량 (빈 값이면 수량 제한 없음)
+     * ARGV[4] : 발급 요청 queue 타입 (LIST, STREAM)
+     * KEYS[3], ARGV[5] : 수량 lease hash 와 lease id. 있으면 수량 검증 대신 lease 가 유효한지 확인하고 사용 수량을 기록한다.
+     * stream 의 XADD 는 id 를 서버에서 생성하므로 명령 단위 복제로 실행한다.
+     */
+    private RedisScript<String> issueRequestScript() {
+        String script = """
+                redis.replicate_commands()
+                if KEYS[3] and redis.call('HEXISTS', KEYS[3], ARGV[5] .. ':granted') == 0 then
+                    return '4'
+                end
+                if ARGV[3] ~= '' and redis.call('SCARD', KEYS[1]) >= tonumber(ARGV[3]) then
+                    return '3'
+                end
+                if redis.call('SADD', KEYS[1], ARGV[1]) == 0 then
+                    return '2'
+                end
+                if ARGV[4] == 'STREAM' then
+                    redis.call('XADD', KEYS[2], '*', 'payload', ARGV[2])
+                else
+                    redis.call('RPUSH', KEYS[2], ARGV[2])
+                end
+                if KEYS[3] then
+                    redis.call('HINCRBY', KEYS[3], ARGV[5] .. ':used', 1)
+                end
+                return '1'
+                """;
+        return RedisScript.of(script, String.class);
+    }
+
+    /**
+     * 중복 발급 검증, 수량 검증, 발급 기록, 발급 큐 적재를 하나의 스크립트로 원자적으로 처리한다.
+     * KEYS[1] : 분할된 발급 요청 set, KEYS[2] : 발급 수량 counter, KEYS[3] : 발급 요청 queue
+     * ARGV[1] : userId, ARGV[2] : 발급 요청, ARGV[3] : 최대 발급 수량 (빈 값이면 수량 제한 없음)
+     * ARGV[4] : 발급 요청 queue 타입 (LIST, STREAM)
+     */
+    private RedisScript<String> issueShardedRequestScript() {
+        String script = """
+                redis.replicate_commands()
+                if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then
+                    return '2'
+                end
+                if ARGV[3] ~= '' and tonumber(redis.call('GET', KEYS[2]) or '0') >= tonumber(ARGV[3]) then
+                    return '3'
+                end
+                redis.call('SADD', KEYS[1], ARGV[1])
+                redis.call('INCR', KEYS[2])
+                if ARGV[4] == 'STREAM' then
+                    redis.call('XADD', KEYS[3], '*', 'payload', ARGV[2])
+                else
+                    redis.call('RPUSH', KEYS[3], ARGV[2])
+                end
+                return '1'
+                """;
+        return RedisScript.of(script, String.class);
     }
 
-    public Long rPush(String key, String value) {
-        return redisTemplate.opsForList().rightPush(key, value);
+    /**
+     * KEYS[1] : 발급 요청 사용자 bitmap, KEYS[2] : 발급 수량 counter
+     * ARGV[1] : bitmap offset, ARGV[2] : 최대 발급 수량 (빈 값이면 수량 제한 없음)
+     */
+    private RedisScript<String> issueBitmapRequestScript() {
+        String script = """
+                if redis.call('GETBIT', KEYS[1], ARGV[1]) == 1 then
+                    return '2'
+                end
+                if ARGV[2] ~= '' and tonumber(redis.call('GET', KEYS[2]) or '0') >= tonumber(ARGV[2]) then
+                    return '3'
+                end
+                redis.call('SETBIT', KEYS[1], ARGV[1], 1)
+                redis.call('INCR', KEYS[2])
+                return '1'
+                """;
+        return RedisScript.of(script, String.class);
     }
 }
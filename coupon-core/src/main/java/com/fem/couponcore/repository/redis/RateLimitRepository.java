@@ -0,0 +1,90 @@
+package com.fem.couponcore.repository.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * token bucket 으로 요청 수를 제한한다.
+ * bucket 마다 남은 token 과 마지막 갱신 시각을 hash 에 저장하고, 여러 bucket 을 하나의 스크립트로 함께 검사한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RateLimitRepository {
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RedisScript<List> tryAcquireScript = tryAcquireScript();
+
+    /**
+     * 모든 bucket 에 차감할 token 이 있으면 bucket 마다 tokens 만큼 차감하고 -1 을 반환한다.
+     * token 이 모자란 bucket 이 있으면 아무것도 차감하지 않고 { bucket 순서, 모자란 token 이 생길 때까지 남은 시간(ms) } 을 반환한다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> tryAcquire(List<Bucket> buckets, long now) {
+        String[] args = new String[buckets.size() * 3 + 1];
+        args[0] = String.valueOf(now);
+        for (int i = 0; i < buckets.size(); i++) {
+            args[i * 3 + 1] = String.valueOf(buckets.get(i).capacity());
+            args[i * 3 + 2] = String.valueOf(buckets.get(i).refillPerSecond());
+            args[i * 3 + 3] = String.valueOf(buckets.get(i).tokens());
+        }
+
+        return record("rate_limit_script", () -> redisTemplate.execute(
+                tryAcquireScript,
+                buckets.stream().map(Bucket::key).toList(),
+                (Object[]) args
+        ));
+    }
+
+    /**
+     * tokens 는 요청 한 번에 차감할 token 수다. 여러 발급을 한 번에 요청하면 발급 수만큼 차감한다.
+     */
+    public record Bucket(String key, int capacity, double refillPerSecond, int tokens) {
+        public Bucket(String key, int capacity, double refillPerSecond) {
+            this(key, capacity, refillPerSecond, 1);
+        }
+    }
+
+    private <T> T record(String operation, Supplier<T> supplier) {
+        return meterRegistry.timer("coupon.redis", "operation", operation).record(supplier);
+    }
+
+    /**
+     * KEYS[n] : bucket hash, ARGV[1] : 현재 시각(ms)
+     * ARGV[3n - 1], ARGV[3n], ARGV[3n + 1] : bucket 의 최대 token 수, 초당 충전 token 수, 차감할 token 수
+     * 경과 시간 만큼 token 을 충전한 뒤 모든 bucket 에 차감할 token 이 있을 때만 차감한다.
+     * bucket 은 가득 찰 때까지 걸리는 시간이 지나면 만료된다.
+     */
+    private RedisScript<List> tryAcquireScript() {
+        String script = """
+                local now = tonumber(ARGV[1])
+                local tokens = {}
+                for i = 1, #KEYS do
+                    local capacity = tonumber(ARGV[i * 3 - 1])
+                    local rate = tonumber(ARGV[i * 3])
+                    local cost = tonumber(ARGV[i * 3 + 1])
+                    local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+                    local current = tonumber(bucket[1]) or capacity
+                    local ts = tonumber(bucket[2]) or now
+                    current = math.min(capacity, current + math.max(now - ts, 0) * rate / 1000)
+                    if current < cost then
+                        return { i, math.ceil((cost - current) * 1000 / rate) }
+                    end
+                    tokens[i] = current - cost
+                end
+                for i = 1, #KEYS do
+                    local capacity = tonumber(ARGV[i * 3 - 1])
+                    local rate = tonumber(ARGV[i * 3])
+                    redis.call('HSET', KEYS[i], 'tokens', tokens[i], 'ts', now)
+                    redis.call('PEXPIRE', KEYS[i], math.ceil(capacity * 1000 / rate) + 1000)
+                end
+                return { -1, 0 }
+                """;
+        return RedisScript.of(script, List.class);
+    }
+}
@@ -0,0 +1,293 @@
+package com.fem.couponcore.repository.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.fem.couponcore.util.CouponRedisUtils.*;
+
+/**
+ * 쿠폰별 대기열을 redis 에 기록한다.
+ * 대기열은 도착 시각을 score 로 하는 sorted set 이고, 입장한 사용자 수는 counter 로, 입장 결과는 hash 에 저장한다.
+ * 대기열에서 꺼낸 사용자는 결과가 저장될 때까지 입장 시각을 score 로 하는 처리 중 sorted set 에 남긴다.
+ * 처리에 실패하거나 노드가 중간에 죽으면 처리 중인 사용자를 대기열 맨 앞으로 되돌려 결과 없이 사라지지 않게 한다.
+ * 대기열이 있는 쿠폰 id 는 set 에 모아 입장 처리할 쿠폰을 scan 없이 찾는다.
+ * 대기열을 연 쿠폰 id 는 별도 set 에 기록하고, 이 쿠폰은 대기열을 거치지 않은 발급 요청을 받지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WaitingRoomRepository {
+    public static final long ALREADY_ADMITTED = -2;
+    public static final long REJECTED = -1;
+    private static final String REQUEUE_SCORE = "0";
+    private static final Duration RESULT_TTL = Duration.ofDays(1);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RedisScript<Long> enterScript = enterScript();
+    private final RedisScript<List> admitScript = admitScript();
+    private final RedisScript<Long> completeScript = completeScript();
+    private final RedisScript<Long> requeueScript = requeueScript();
+
+    /**
+     * 대기열에 들어가고 순번(0 부터 시작)을 반환한다. 이미 대기 중이면 현재 순번을 반환한다.
+     * 입장 결과가 있거나 입장 처리 중이면 ALREADY_ADMITTED, 대기열에 들어온 사용자 수가 최대 발급 수량에 도달했으면 REJECTED 를 반환한다.
+     */
+    public long enter(Long couponId, Long userId, Integer totalQuantity, long arrivedAt) {
+        Long rank = record("waiting_enter", () -> redisTemplate.execute(
+                enterScript,
+                List.of(getWaitingRoomKey(couponId), getWaitingRoomEnteredCountKey(couponId),
+                        getWaitingRoomResultKey(couponId), getWaitingRoomCouponsKey(),
+                        getWaitingRoomProcessingKey(couponId)),
+                userId.toString(),
+                String.valueOf(arrivedAt),
+                totalQuantity == null ? "" : totalQuantity.toString(),
+                couponId.toString()
+        ));
+        return rank == null ? REJECTED : rank;
+    }
+
+    public void open(Long couponId) {
+        record("sadd", () -> redisTemplate.opsForSet().add(getWaitingRoomOpenedCouponsKey(), couponId.toString()));
+    }
+
+    public void close(Long couponId) {
+        record("srem", () -> redisTemplate.opsForSet().remove(getWaitingRoomOpenedCouponsKey(), couponId.toString()));
+    }
+
+    public boolean isOpened(Long couponId) {
+        return Boolean.TRUE.equals(record("sismember",
+                () -> redisTemplate.opsForSet().isMember(getWaitingRoomOpenedCouponsKey(), couponId.toString())));
+    }
+
+    public Long findRank(Long couponId, Long userId) {
+        return record("zrank", () -> redisTemplate.opsForZSet().rank(getWaitingRoomKey(couponId), userId.toString()));
+    }
+
+    public String findResult(Long couponId, Long userId) {
+        return record("hget", () -> (String) redisTemplate.opsForHash().get(getWaitingRoomResultKey(couponId), userId.toString()));
+    }
+
+    public boolean isProcessing(Long couponId, Long userId) {
+        return record("zscore", () -> redisTemplate.opsForZSet().score(getWaitingRoomProcessingKey(couponId), userId.toString())) != null;
+    }
+
+    /**
+     * 초당 입장 수를 넘지 않도록 대기열 앞에서부터 입장시킬 사용자를 꺼낸다.
+     * 초당 입장 수는 쿠폰별로 저장된 값이 있으면 그 값을, 없으면 defaultRate 를 사용한다.
+     * 꺼낸 사용자는 complete 또는 requeue 가 호출될 때까지 처리 중 sorted set 에 남는다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> admit(Long couponId, int defaultRate, long intervalMillis, long admittedAt) {
+        List<String> userIds = record("waiting_admit", () -> redisTemplate.execute(
+                admitScript,
+                List.of(getWaitingRoomKey(couponId), getWaitingRoomAdmissionCountKey(couponId, admittedAt / 1000),
+                        getWaitingRoomAdmissionRateKey(couponId), getWaitingRoomCouponsKey(),
+                        getWaitingRoomProcessingKey(couponId)),
+                String.valueOf(defaultRate),
+                String.valueOf(intervalMillis),
+                couponId.toString(),
+                String.valueOf(admittedAt)
+        ));
+        return userIds == null ? List.of() : userIds.stream().map(Long::valueOf).toList();
+    }
+
+    /**
+     * 입장 결과를 저장하고 처리 중 sorted set 에서 제거한다. 결과가 발급 성공(issuedResult)이 아니면 입장 수를 되돌려
+     * 다른 사용자가 대기열에 들어올 수 있게 한다. 결과를 저장한 사용자 수를 반환한다.
+     * 이미 다른 노드가 결과를 저장한 사용자는 건너뛴다.
+     */
+    public long complete(Long couponId, Map<String, String> results, String issuedResult) {
+        List<String> args = new ArrayList<>();
+        args.add(issuedResult);
+        args.add(String.valueOf(RESULT_TTL.toSeconds()));
+        args.add(couponId.toString());
+        results.forEach((userId, result) -> {
+            args.add(userId);
+            args.add(result);
+        });
+        Long completed = record("waiting_complete", () -> redisTemplate.execute(
+                completeScript,
+                List.of(getWaitingRoomKey(couponId), getWaitingRoomProcessingKey(couponId),
+                        getWaitingRoomResultKey(couponId), getWaitingRoomEnteredCountKey(couponId),
+                        getWaitingRoomCouponsKey()),
+                args.toArray()
+        ));
+        return completed == null ? 0 : completed;
+    }
+
+    /**
+     * 처리 중인 사용자를 대기열 맨 앞으로 되돌린다. 되돌린 사용자 수를 반환한다.
+     */
+    public long requeue(Long couponId, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        List<String> args = new ArrayList<>();
+        args.add(couponId.toString());
+        args.add(REQUEUE_SCORE);
+        userIds.forEach(userId -> args.add(userId.toString()));
+        Long requeued = record("waiting_requeue", () -> redisTemplate.execute(
+                requeueScript,
+                List.of(getWaitingRoomKey(couponId), getWaitingRoomProcessingKey(couponId), getWaitingRoomCouponsKey()),
+                args.toArray()
+        ));
+        return requeued == null ? 0 : requeued;
+    }
+
+    /**
+     * admittedBefore 이전에 입장했는데 아직 결과가 없는 사용자를 대기열 맨 앞으로 되돌린다.
+     * 입장 처리 중에 노드가 죽어 complete 도 requeue 도 호출되지 않은 사용자를 회수한다.
+     */
+    public long requeueStale(Long couponId, long admittedBefore) {
+        Set<String> userIds = record("zrangebyscore", () -> redisTemplate.opsForZSet()
+                .rangeByScore(getWaitingRoomProcessingKey(couponId), Double.NEGATIVE_INFINITY, admittedBefore));
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        return requeue(couponId, userIds.stream().map(Long::valueOf).toList());
+    }
+
+    public Set<Long> findWaitingCouponIds() {
+        Set<String> couponIds = record("smembers", () -> redisTemplate.opsForSet().members(getWaitingRoomCouponsKey()));
+        return couponIds == null ? Set.of() : couponIds.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    public void updateAdmissionRate(Long couponId, int rate) {
+        record("set", () -> {
+            redisTemplate.opsForValue().set(getWaitingRoomAdmissionRateKey(couponId), String.valueOf(rate));
+            return null;
+        });
+    }
+
+    private <T> T record(String operation, Supplier<T> supplier) {
+        return meterRegistry.timer("coupon.redis", "operation", operation).record(supplier);
+    }
+
+    /**
+     * KEYS[1] : 대기열, KEYS[2] : 대기열에 들어온 사용자 수, KEYS[3] : 입장 결과 hash, KEYS[4] : 대기열이 있는 쿠폰 set,
+     * KEYS[5] : 처리 중 sorted set
+     * ARGV[1] : userId, ARGV[2] : 도착 시각, ARGV[3] : 최대 발급 수량 (빈 값이면 수량 제한 없음), ARGV[4] : couponId
+     */
+    private RedisScript<Long> enterScript() {
+        String script = """
+                if redis.call('HEXISTS', KEYS[3], ARGV[1]) == 1 or redis.call('ZSCORE', KEYS[5], ARGV[1]) then
+                    return -2
+                end
+                local rank = redis.call('ZRANK', KEYS[1], ARGV[1])
+                if rank then
+                    return rank
+                end
+                if ARGV[3] ~= '' and tonumber(redis.call('GET', KEYS[2]) or '0') >= tonumber(ARGV[3]) then
+                    return -1
+                end
+                redis.call('INCR', KEYS[2])
+                redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+                redis.call('SADD', KEYS[4], ARGV[4])
+                return redis.call('ZRANK', KEYS[1], ARGV[1])
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    /**
+     * KEYS[1] : 대기열, KEYS[2] : 현재 초의 입장 수, KEYS[3] : 쿠폰별 초당 입장 수, KEYS[4] : 대기열이 있는 쿠폰 set,
+     * KEYS[5] : 처리 중 sorted set
+     * ARGV[1] : 기본 초당 입장 수, ARGV[2] : 입장 처리 주기(ms), ARGV[3] : couponId, ARGV[4] : 입장 시각(ms)
+     * 한 주기에는 초당 입장 수를 주기로 나눈 만큼만 꺼내므로 1 초 동안 고르게 입장한다.
+     * 대기열과 처리 중 sorted set 이 모두 비면 쿠폰 set 에서 제거한다.
+     */
+    private RedisScript<List> admitScript() {
+        String script = """
+                local rate = tonumber(redis.call('GET', KEYS[3]) or ARGV[1])
+                local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+                local count = math.min(math.ceil(rate * tonumber(ARGV[2]) / 1000), rate - used)
+                local users = {}
+                if count > 0 then
+                    local popped = redis.call('ZPOPMIN', KEYS[1], count)
+                    for i = 1, #popped, 2 do
+                        users[#users + 1] = popped[i]
+                        redis.call('ZADD', KEYS[5], ARGV[4], popped[i])
+                    end
+                    if #users > 0 then
+                        redis.call('INCRBY', KEYS[2], #users)
+                        redis.call('EXPIRE', KEYS[2], 2)
+                    end
+                end
+                if redis.call('ZCARD', KEYS[1]) == 0 and redis.call('ZCARD', KEYS[5]) == 0 then
+                    redis.call('SREM', KEYS[4], ARGV[3])
+                end
+                return users
+                """;
+        return RedisScript.of(script, List.class);
+    }
+
+    /**
+     * KEYS[1] : 대기열, KEYS[2] : 처리 중 sorted set, KEYS[3] : 입장 결과 hash, KEYS[4] : 대기열에 들어온 사용자 수,
+     * KEYS[5] : 대기열이 있는 쿠폰 set
+     * ARGV[1] : 발급 성공 결과 값, ARGV[2] : 결과 TTL(초), ARGV[3] : couponId, ARGV[4..] : userId, 결과 쌍
+     * 처리 중이거나 대기열로 되돌려진 사용자만 결과를 저장하므로 같은 사용자의 입장 수를 두 번 되돌리지 않는다.
+     */
+    private RedisScript<Long> completeScript() {
+        String script = """
+                local completed = 0
+                local released = 0
+                for i = 4, #ARGV, 2 do
+                    local owned = redis.call('ZREM', KEYS[2], ARGV[i]) + redis.call('ZREM', KEYS[1], ARGV[i])
+                    if owned > 0 then
+                        redis.call('HSET', KEYS[3], ARGV[i], ARGV[i + 1])
+                        completed = completed + 1
+                        if ARGV[i + 1] ~= ARGV[1] then
+                            released = released + 1
+                        end
+                    end
+                end
+                if completed > 0 then
+                    redis.call('EXPIRE', KEYS[3], ARGV[2])
+                end
+                if released > 0 then
+                    if redis.call('DECRBY', KEYS[4], released) < 0 then
+                        redis.call('SET', KEYS[4], 0)
+                    end
+                end
+                if redis.call('ZCARD', KEYS[1]) == 0 and redis.call('ZCARD', KEYS[2]) == 0 then
+                    redis.call('SREM', KEYS[5], ARGV[3])
+                end
+                return completed
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+
+    /**
+     * KEYS[1] : 대기열, KEYS[2] : 처리 중 sorted set, KEYS[3] : 대기열이 있는 쿠폰 set
+     * ARGV[1] : couponId, ARGV[2] : 되돌릴 score, ARGV[3..] : userId
+     * 처리 중 sorted set 에 남아있는 사용자만 되돌리므로 이미 결과가 저장된 사용자는 다시 입장하지 않는다.
+     */
+    private RedisScript<Long> requeueScript() {
+        String script = """
+                local requeued = 0
+                for i = 3, #ARGV do
+                    if redis.call('ZREM', KEYS[2], ARGV[i]) == 1 then
+                        redis.call('ZADD', KEYS[1], ARGV[2], ARGV[i])
+                        requeued = requeued + 1
+                    end
+                end
+                if requeued > 0 then
+                    redis.call('SADD', KEYS[3], ARGV[1])
+                end
+                return requeued
+                """;
+        return RedisScript.of(script, Long.class);
+    }
+}
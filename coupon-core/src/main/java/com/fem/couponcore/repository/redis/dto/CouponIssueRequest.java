@@ -1,4 +1,18 @@
 package com.fem.couponcore.repository.redis.dto;
 
-public record CouponIssueRequest(Long couponId, Long userId) {
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 발급 요청 큐에 적재되는 쿠폰 발급 요청
+ * requestId, requestedAt 은 json 형식으로 적재된 이전 요청에서는 null 이다.
+ */
+public record CouponIssueRequest(Long couponId, Long userId, Long requestId, Long requestedAt) {
+
+    public CouponIssueRequest(Long couponId, Long userId) {
+        this(couponId, userId, null, null);
+    }
+
+    public static CouponIssueRequest of(Long couponId, Long userId) {
+        return new CouponIssueRequest(couponId, userId, ThreadLocalRandom.current().nextLong(), System.currentTimeMillis());
+    }
 }
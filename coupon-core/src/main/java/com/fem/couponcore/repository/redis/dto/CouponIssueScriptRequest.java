@@ -0,0 +1,50 @@
+package com.fem.couponcore.repository.redis.dto;
+
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueueType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public record CouponIssueScriptRequest(
+        String issueRequestKey,
+        String issueRequestQueueKey,
+        CouponIssueQueueType queueType,
+        Long userId,
+        byte[] value,
+        Integer totalQuantity,
+        String leaseKey,
+        String leaseId
+) {
+    public CouponIssueScriptRequest(String issueRequestKey, String issueRequestQueueKey, CouponIssueQueueType queueType,
+                                    Long userId, byte[] value, Integer totalQuantity) {
+        this(issueRequestKey, issueRequestQueueKey, queueType, userId, value, totalQuantity, null, null);
+    }
+
+    public List<String> keys() {
+        if (leaseKey == null) {
+            return List.of(issueRequestKey, issueRequestQueueKey);
+        }
+        return List.of(issueRequestKey, issueRequestQueueKey, leaseKey);
+    }
+
+    /**
+     * 발급 요청 스크립트의 ARGV 순서대로 인자를 만든다.
+     */
+    public List<byte[]> args() {
+        List<byte[]> args = new ArrayList<>(List.of(
+                toBytes(userId.toString()),
+                value,
+                toBytes(totalQuantity == null ? "" : totalQuantity.toString()),
+                toBytes(queueType.name())
+        ));
+        if (leaseId != null) {
+            args.add(toBytes(leaseId));
+        }
+        return args;
+    }
+
+    private static byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
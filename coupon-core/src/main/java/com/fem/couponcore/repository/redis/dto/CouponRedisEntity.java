@@ -16,6 +16,7 @@ public record CouponRedisEntity(
         Long id,
         CouponType couponType,
         Integer totalQuantity,
+        Integer userShardCount,
         @JsonSerialize(using = LocalDateTimeSerializer.class)
         @JsonDeserialize(using = LocalDateTimeDeserializer.class)
         LocalDateTime dateIssueStart,
@@ -29,11 +30,24 @@ public record CouponRedisEntity(
                 coupon.getId(),
                 coupon.getCouponType(),
                 coupon.getTotalQuantity(),
+                coupon.getUserShardCount(),
                 coupon.getDateIssueStart(),
                 coupon.getDateIssueEnd()
         );
     }
 
+    public boolean isUserSharded() {
+        return userShardCount != null && userShardCount > 1;
+    }
+
+    public boolean isIssueStarted() {
+        return dateIssueStart.isBefore(LocalDateTime.now());
+    }
+
+    public boolean isIssueEnded() {
+        return dateIssueEnd.isBefore(LocalDateTime.now());
+    }
+
     private boolean availableIssueDate() {
         LocalDateTime now = LocalDateTime.now();
         return dateIssueStart.isBefore(now) && dateIssueEnd.isAfter(now);
@@ -0,0 +1,31 @@
+package com.fem.couponcore.repository.redis.queue;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 쿠폰 발급 요청 큐
+ * coupon.queue.type 으로 list 또는 stream 구현을 선택한다.
+ */
+public interface CouponIssueQueue {
+
+    CouponIssueQueueType getType();
+
+    String getQueueKey(Long couponId);
+
+    void push(Long couponId, byte[] value);
+
+    Set<String> findQueueKeys();
+
+    List<CouponIssueQueueMessage> poll(String queueKey, int count);
+
+    /**
+     * 큐에 남아 있는 메시지 수. ack 전까지 큐에 남는 구현은 처리 중인 메시지도 포함한다.
+     */
+    long size(String queueKey);
+
+    /**
+     * 처리가 끝난 메시지를 큐에서 제거한다.
+     */
+    void ack(String queueKey, List<CouponIssueQueueMessage> messages);
+}
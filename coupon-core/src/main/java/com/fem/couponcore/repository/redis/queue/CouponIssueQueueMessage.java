@@ -0,0 +1,7 @@
+package com.fem.couponcore.repository.redis.queue;
+
+/**
+ * 발급 요청 큐에서 꺼낸 메시지. list 큐는 id 가 없다.
+ */
+public record CouponIssueQueueMessage(String id, byte[] value) {
+}
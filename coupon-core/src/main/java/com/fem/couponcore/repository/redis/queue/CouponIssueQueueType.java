@@ -0,0 +1,5 @@
+package com.fem.couponcore.repository.redis.queue;
+
+public enum CouponIssueQueueType {
+    LIST, STREAM
+}
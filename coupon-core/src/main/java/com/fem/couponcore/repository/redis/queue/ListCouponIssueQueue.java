@@ -0,0 +1,59 @@
+package com.fem.couponcore.repository.redis.queue;
+
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestQueueKeyPattern;
+
+/**
+ * redis list 기반 발급 요청 큐
+ * 꺼내는 순간 큐에서 제거되므로 하나의 consumer 만 안전하게 읽을 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "coupon.queue.type", havingValue = "list", matchIfMissing = true)
+public class ListCouponIssueQueue implements CouponIssueQueue {
+    private final CouponRedisRepository couponRedisRepository;
+
+    @Override
+    public CouponIssueQueueType getType() {
+        return CouponIssueQueueType.LIST;
+    }
+
+    @Override
+    public String getQueueKey(Long couponId) {
+        return getIssueRequestQueueKey(couponId);
+    }
+
+    @Override
+    public void push(Long couponId, byte[] value) {
+        couponRedisRepository.rPush(getQueueKey(couponId), value);
+    }
+
+    @Override
+    public Set<String> findQueueKeys() {
+        return couponRedisRepository.scanKeys(getIssueRequestQueueKeyPattern());
+    }
+
+    @Override
+    public List<CouponIssueQueueMessage> poll(String queueKey, int count) {
+        return couponRedisRepository.lPop(queueKey, count).stream()
+                .map(value -> new CouponIssueQueueMessage(null, value))
+                .toList();
+    }
+
+    @Override
+    public long size(String queueKey) {
+        return couponRedisRepository.lLen(queueKey);
+    }
+
+    @Override
+    public void ack(String queueKey, List<CouponIssueQueueMessage> messages) {
+    }
+}
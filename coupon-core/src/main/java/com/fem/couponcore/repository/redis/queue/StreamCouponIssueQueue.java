@@ -0,0 +1,154 @@
+package com.fem.couponcore.repository.redis.queue;
+
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestStreamKey;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestStreamKeyPattern;
+
+/**
+ * redis stream 기반 발급 요청 큐
+ * consumer group 으로 읽고 처리가 끝난 메시지만 XACK 하므로 consumer 가 처리 도중 종료되어도 요청이 유실되지 않는다.
+ * 일정 시간 이상 ack 되지 않은 메시지는 다른 consumer 가 XCLAIM 으로 가져와 다시 처리한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "coupon.queue.type", havingValue = "stream")
+public class StreamCouponIssueQueue implements CouponIssueQueue {
+    static final String PAYLOAD_FIELD = "payload";
+
+    private final CouponRedisRepository couponRedisRepository;
+    private final RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+    private final String group;
+    private final String consumerName;
+    private final Duration claimMinIdleTime;
+    private final Set<String> initializedStreams = ConcurrentHashMap.newKeySet();
+
+    public StreamCouponIssueQueue(CouponRedisRepository couponRedisRepository,
+                                  RedisTemplate<String, byte[]> byteArrayRedisTemplate,
+                                  @Value("${coupon.queue.stream.group:coupon-consumer}") String group,
+                                  @Value("${coupon.queue.stream.consumer:}") String consumerName,
+                                  @Value("${coupon.queue.stream.claim-min-idle-time:30s}") Duration claimMinIdleTime) {
+        this.couponRedisRepository = couponRedisRepository;
+        this.byteArrayRedisTemplate = byteArrayRedisTemplate;
+        this.group = group;
+        this.consumerName = consumerName.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : consumerName;
+        this.claimMinIdleTime = claimMinIdleTime;
+    }
+
+    @Override
+    public CouponIssueQueueType getType() {
+        return CouponIssueQueueType.STREAM;
+    }
+
+    @Override
+    public String getQueueKey(Long couponId) {
+        return getIssueRequestStreamKey(couponId);
+    }
+
+    @Override
+    public void push(Long couponId, byte[] value) {
+        streamOperations().add(MapRecord.create(getQueueKey(couponId), Map.of(PAYLOAD_FIELD, value)));
+    }
+
+    @Override
+    public Set<String> findQueueKeys() {
+        return couponRedisRepository.scanKeys(getIssueRequestStreamKeyPattern());
+    }
+
+    /**
+     * 오래 ack 되지 않은 메시지를 먼저 회수하고, 남은 개수만큼 새 메시지를 읽는다.
+     */
+    @Override
+    public List<CouponIssueQueueMessage> poll(String queueKey, int count) {
+        createGroupIfAbsent(queueKey);
+        List<MapRecord<String, Object, Object>> records = claimIdleMessages(queueKey, count);
+        if (records.isEmpty()) {
+            records = streamOperations().read(
+                    Consumer.from(group, consumerName),
+                    StreamReadOptions.empty().count(count),
+                    StreamOffset.create(queueKey, ReadOffset.lastConsumed()));
+        }
+        if (records == null) {
+            return List.of();
+        }
+        return records.stream()
+                .map(record -> new CouponIssueQueueMessage(record.getId().getValue(), (byte[]) record.getValue().get(PAYLOAD_FIELD)))
+                .toList();
+    }
+
+    /**
+     * ack 한 메시지는 stream 에서 삭제하므로 stream 길이는 읽지 않은 메시지와 ack 되지 않은 메시지의 합이다.
+     */
+    @Override
+    public long size(String queueKey) {
+        Long size = streamOperations().size(queueKey);
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * ack 후 stream 에서도 삭제해 처리된 메시지가 메모리에 쌓이지 않게 한다.
+     */
+    @Override
+    public void ack(String queueKey, List<CouponIssueQueueMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        RecordId[] recordIds = messages.stream()
+                .map(message -> RecordId.of(message.id()))
+                .toArray(RecordId[]::new);
+        streamOperations().acknowledge(queueKey, group, recordIds);
+        streamOperations().delete(queueKey, recordIds);
+    }
+
+    private List<MapRecord<String, Object, Object>> claimIdleMessages(String queueKey, int count) {
+        RecordId[] idleRecordIds = streamOperations().pending(queueKey, group, Range.unbounded(), count).stream()
+                .filter(pendingMessage -> pendingMessage.getElapsedTimeSinceLastDelivery().compareTo(claimMinIdleTime) >= 0)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (idleRecordIds.length == 0) {
+            return List.of();
+        }
+        log.info("미처리 발급 요청 회수. key : {}, count : {}", queueKey, idleRecordIds.length);
+        return streamOperations().claim(queueKey, group, consumerName, claimMinIdleTime, idleRecordIds);
+    }
+
+    private void createGroupIfAbsent(String queueKey) {
+        if (initializedStreams.contains(queueKey)) {
+            return;
+        }
+        try {
+            streamOperations().createGroup(queueKey, ReadOffset.from("0"), group);
+        } catch (RedisSystemException e) {
+            if (e.getRootCause() == null || !String.valueOf(e.getRootCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        initializedStreams.add(queueKey);
+    }
+
+    private StreamOperations<String, Object, Object> streamOperations() {
+        return byteArrayRedisTemplate.opsForStream();
+    }
+}
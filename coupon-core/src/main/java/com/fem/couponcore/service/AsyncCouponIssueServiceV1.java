@@ -1,17 +1,18 @@
 package com.fem.couponcore.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fem.couponcore.component.CouponSoldOutRegistry;
 import com.fem.couponcore.component.DistributeLockExecutor;
 import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
 import com.fem.couponcore.repository.redis.CouponRedisRepository;
 import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
 import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
 import static com.fem.couponcore.util.CouponRedisUtils.*;
 
 
@@ -23,26 +24,49 @@ public class AsyncCouponIssueServiceV1 {
     private final CouponIssueRedisService couponIssueRedisService;
     private final CouponCacheService couponCacheService;
     private final DistributeLockExecutor distributeLockExecutor;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final CouponIssueQueue couponIssueQueue;
 
     public void issue(Long couponId, Long userId) {
         CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
         coupon.checkIssuableCoupon();
+        couponSoldOutRegistry.checkSoldOut(couponId);
 
         distributeLockExecutor.execute(getLockKey(couponId), 5000, 5000, () -> {
-            couponIssueRedisService.checkCouponIssueQuantity(coupon, userId);
-            issueRequest(couponId, userId);
+            checkCouponIssueQuantity(coupon, userId);
+            issueRequest(coupon, userId);
         });
     }
 
-    private void issueRequest(Long couponId, Long userId) {
-        CouponIssueRequest issueRequest = new CouponIssueRequest(couponId, userId);
+    private void checkCouponIssueQuantity(CouponRedisEntity coupon, Long userId) {
         try {
-            String value = objectMapper.writeValueAsString(issueRequest);
-            couponRedisRepository.sAdd(getIssueRequestKey(couponId), userId.toString());
-            couponRedisRepository.rPush(getIssueRequestQueueKey(couponId), value);
-        } catch (JsonProcessingException e) {
-            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "input: %s".formatted(issueRequest));
+            couponIssueRedisService.checkCouponIssueQuantity(coupon, userId);
+        } catch (CouponIssueException e) {
+            if (e.getErrorCode() == INVALID_COUPON_ISSUE_QUANTITY) {
+                couponSoldOutRegistry.markSoldOut(coupon.id());
+            }
+            throw e;
+        }
+    }
+
+    private void issueRequest(CouponRedisEntity coupon, Long userId) {
+        Long couponId = coupon.id();
+        byte[] value = couponIssueRequestCodec.encode(CouponIssueRequest.of(couponId, userId));
+        if (couponIssueRedisService.isBitmapTracked(coupon)) {
+            couponIssueRedisService.issueBitmapRequest(coupon, userId, value).checkRequestResult(couponId, userId);
+            return;
+        }
+        if (coupon.isUserSharded()) {
+            couponIssueRedisService.issueShardedRequest(coupon, userId, value).checkRequestResult(couponId, userId);
+            return;
         }
+        if (couponIssueRedisService.isLeased(coupon)) {
+            couponIssueRedisService.issueLeasedRequest(coupon, userId, value).checkRequestResult(couponId, userId);
+            return;
+        }
+
+        couponRedisRepository.sAdd(getIssueRequestKey(couponId), userId.toString());
+        couponIssueQueue.push(couponId, value);
     }
 }
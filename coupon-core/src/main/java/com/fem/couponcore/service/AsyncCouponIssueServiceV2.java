@@ -0,0 +1,213 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.component.CouponQuantityLeaseManager;
+import com.fem.couponcore.component.CouponSoldOutRegistry;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.exception.ErrorCode;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCode;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import com.fem.couponcore.repository.redis.dto.CouponIssueScriptRequest;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
+import com.fem.couponcore.service.dto.CouponIssueResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+
+/**
+ * 발급 검증과 발급 요청 적재를 redis script 로 한 번에 처리한다.
+ * 분산 락 없이 redis 의 단일 스레드 실행으로 동시성을 보장한다.
+ * 수량 lease 를 사용하면 수량 검증은 노드가 미리 받은 lease 로 처리하고, 스크립트는 중복 발급 검증과 큐 적재만 한다.
+ * lease 를 사용하는 동안에는 V1 과 reactive 발급도 같은 lease 로 수량을 검증한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncCouponIssueServiceV2 {
+    private static final int PIPELINE_SIZE = 1000;
+
+    private final CouponRedisRepository couponRedisRepository;
+    private final CouponCacheService couponCacheService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final CouponIssueQueue couponIssueQueue;
+    private final CouponIssueRedisService couponIssueRedisService;
+    private final CouponQuantityLeaseManager couponQuantityLeaseManager;
+
+    public void issue(Long couponId, Long userId) {
+        CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
+        coupon.checkIssuableCoupon();
+        couponSoldOutRegistry.checkSoldOut(couponId);
+        if (isRequestedOneByOne(coupon)) {
+            issueOneByOne(coupon, userId);
+            return;
+        }
+        if (couponIssueRedisService.isLeased(coupon)) {
+            couponIssueRedisService.issueLeasedRequest(coupon, userId, encode(couponId, userId))
+                    .checkRequestResult(couponId, userId);
+            return;
+        }
+        issueRequest(couponId, userId, coupon.totalQuantity());
+    }
+
+    /**
+     * 쿠폰마다 한 번씩 발급 가능 여부를 검증하고, 검증을 통과한 요청은 pipeline 으로 한 번에 처리한다.
+     * 사용자 set 을 분할한 쿠폰은 key 가 여러 노드에 나뉘어 있어 pipeline 없이 하나씩 처리한다.
+     * 사용자 bitmap 에 기록하는 쿠폰도 발급 요청 스크립트를 사용하지 않으므로 하나씩 처리한다.
+     * 결과는 요청 순서대로 반환한다.
+     */
+    public List<CouponIssueResult> issueAll(List<CouponIssueRequest> requests) {
+        Map<Long, ErrorCode> couponErrors = new HashMap<>();
+        Map<Long, CouponRedisEntity> coupons = new HashMap<>();
+        for (CouponIssueRequest request : requests) {
+            Long couponId = request.couponId();
+            if (coupons.containsKey(couponId) || couponErrors.containsKey(couponId)) {
+                continue;
+            }
+
+            try {
+                CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
+                coupon.checkIssuableCoupon();
+                couponSoldOutRegistry.checkSoldOut(couponId);
+                coupons.put(couponId, coupon);
+            } catch (CouponIssueException e) {
+                couponErrors.put(couponId, e.getErrorCode());
+            }
+        }
+
+        CouponIssueResult[] results = new CouponIssueResult[requests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<CouponIssueScriptRequest> scriptRequests = new ArrayList<>();
+        List<Integer> leaseRetryIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CouponIssueRequest request = requests.get(i);
+            ErrorCode errorCode = couponErrors.get(request.couponId());
+            if (errorCode != null) {
+                results[i] = new CouponIssueResult(request.couponId(), request.userId(), errorCode);
+                continue;
+            }
+
+            CouponRedisEntity coupon = coupons.get(request.couponId());
+            if (isRequestedOneByOne(coupon)) {
+                results[i] = toResult(request.couponId(), request.userId(), requestOneByOne(coupon, request.userId()));
+                continue;
+            }
+
+            if (couponIssueRedisService.isLeased(coupon)) {
+                String leaseId = couponQuantityLeaseManager.acquire(coupon.id(), coupon.totalQuantity());
+                if (leaseId == null) {
+                    results[i] = new CouponIssueResult(request.couponId(), request.userId(), ErrorCode.INVALID_COUPON_ISSUE_QUANTITY);
+                    continue;
+                }
+                indexes.add(i);
+                scriptRequests.add(couponIssueRedisService.toLeasedScriptRequest(coupon.id(), request.userId(),
+                        encode(coupon.id(), request.userId()), leaseId));
+                continue;
+            }
+
+            indexes.add(i);
+            scriptRequests.add(toScriptRequest(request.couponId(), request.userId(), coupon.totalQuantity()));
+        }
+
+        for (int from = 0; from < scriptRequests.size(); from += PIPELINE_SIZE) {
+            int to = Math.min(from + PIPELINE_SIZE, scriptRequests.size());
+            List<CouponIssueRequestCode> codes;
+            try {
+                codes = couponRedisRepository.issueRequests(scriptRequests.subList(from, to));
+            } catch (RuntimeException e) {
+                giveBackLeases(requests, indexes, scriptRequests, from);
+                throw e;
+            }
+            for (int i = 0; i < codes.size(); i++) {
+                int index = indexes.get(from + i);
+                CouponIssueRequest request = requests.get(index);
+                CouponIssueScriptRequest scriptRequest = scriptRequests.get(from + i);
+                CouponIssueRequestCode code = codes.get(i);
+                if (scriptRequest.leaseId() == null) {
+                    results[index] = toResult(request.couponId(), request.userId(), code);
+                } else if (code == CouponIssueRequestCode.LEASE_EXPIRED) {
+                    leaseRetryIndexes.add(index);
+                } else {
+                    couponIssueRedisService.giveBackIfNotIssued(request.couponId(), scriptRequest.leaseId(), code);
+                    results[index] = new CouponIssueResult(request.couponId(), request.userId(), code.errorCode);
+                }
+            }
+        }
+
+        for (int index : leaseRetryIndexes) {
+            CouponIssueRequest request = requests.get(index);
+            CouponIssueRequestCode code = couponIssueRedisService.issueLeasedRequest(coupons.get(request.couponId()),
+                    request.userId(), encode(request.couponId(), request.userId()));
+            results[index] = new CouponIssueResult(request.couponId(), request.userId(), code.errorCode);
+        }
+
+        return List.of(results);
+    }
+
+    private void issueRequest(Long couponId, Long userId, Integer totalQuantity) {
+        CouponIssueScriptRequest request = toScriptRequest(couponId, userId, totalQuantity);
+        CouponIssueRequestCode code = couponRedisRepository.issueRequest(request);
+        markSoldOut(couponId, code);
+        code.checkRequestResult(couponId, userId);
+    }
+
+    /**
+     * pipeline 이 실패하면 아직 결과를 받지 못한 요청이 받아둔 lease 수량을 되돌린다.
+     */
+    private void giveBackLeases(List<CouponIssueRequest> requests, List<Integer> indexes,
+                                List<CouponIssueScriptRequest> scriptRequests, int from) {
+        for (int i = from; i < scriptRequests.size(); i++) {
+            String leaseId = scriptRequests.get(i).leaseId();
+            if (leaseId != null) {
+                couponQuantityLeaseManager.giveBack(requests.get(indexes.get(i)).couponId(), leaseId);
+            }
+        }
+    }
+
+    private boolean isRequestedOneByOne(CouponRedisEntity coupon) {
+        return coupon.isUserSharded() || couponIssueRedisService.isBitmapTracked(coupon);
+    }
+
+    private void issueOneByOne(CouponRedisEntity coupon, Long userId) {
+        CouponIssueRequestCode code = requestOneByOne(coupon, userId);
+        markSoldOut(coupon.id(), code);
+        code.checkRequestResult(coupon.id(), userId);
+    }
+
+    private CouponIssueRequestCode requestOneByOne(CouponRedisEntity coupon, Long userId) {
+        byte[] value = couponIssueRequestCodec.encode(CouponIssueRequest.of(coupon.id(), userId));
+        if (couponIssueRedisService.isBitmapTracked(coupon)) {
+            return couponIssueRedisService.issueBitmapRequest(coupon, userId, value);
+        }
+        return couponIssueRedisService.issueShardedRequest(coupon, userId, value);
+    }
+
+    private CouponIssueScriptRequest toScriptRequest(Long couponId, Long userId, Integer totalQuantity) {
+        return new CouponIssueScriptRequest(getIssueRequestKey(couponId), couponIssueQueue.getQueueKey(couponId),
+                couponIssueQueue.getType(), userId, encode(couponId, userId), totalQuantity);
+    }
+
+    private byte[] encode(Long couponId, Long userId) {
+        return couponIssueRequestCodec.encode(CouponIssueRequest.of(couponId, userId));
+    }
+
+    private CouponIssueResult toResult(Long couponId, Long userId, CouponIssueRequestCode code) {
+        markSoldOut(couponId, code);
+        return new CouponIssueResult(couponId, userId, code.errorCode);
+    }
+
+    private void markSoldOut(Long couponId, CouponIssueRequestCode code) {
+        if (code == CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY) {
+            couponSoldOutRegistry.markSoldOut(couponId);
+        }
+    }
+}
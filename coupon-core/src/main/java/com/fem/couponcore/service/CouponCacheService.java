@@ -1,19 +1,46 @@
 package com.fem.couponcore.service;
 
+import com.fem.couponcore.component.CouponSoldOutRegistry;
 import com.fem.couponcore.model.Coupon;
 import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 public class CouponCacheService {
     private final CouponIssueService couponIssueService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final CacheManager cacheManager;
 
-    @Cacheable(cacheNames = "coupon")
+    /**
+     * 같은 쿠폰의 캐시 miss 는 한 번만 로드하고 동시에 요청한 쪽은 로드된 값을 함께 받는다.
+     */
+    @Cacheable(cacheNames = "coupon", sync = true)
     public CouponRedisEntity getCouponCache(Long couponId) {
         Coupon coupon = couponIssueService.findCoupon(couponId);
         return new CouponRedisEntity(coupon);
     }
+
+    /**
+     * 데이터베이스에서 쿠폰 정보를 다시 읽어 redis 캐시와 현재 노드의 로컬 캐시에 저장하고, 다른 노드의 로컬 캐시는 무효화한다.
+     * 캐시된 쿠폰과 최대 발급 수량이 다르면 모든 노드의 소진 기록을 제거한다.
+     */
+    @CachePut(cacheNames = "coupon", key = "#couponId")
+    public CouponRedisEntity refreshCouponCache(Long couponId) {
+        Coupon coupon = couponIssueService.findCoupon(couponId);
+        CouponRedisEntity refreshed = new CouponRedisEntity(coupon);
+        Cache cache = cacheManager.getCache("coupon");
+        CouponRedisEntity cached = cache == null ? null : cache.get(couponId, CouponRedisEntity.class);
+        if (cached == null || !Objects.equals(cached.totalQuantity(), refreshed.totalQuantity())) {
+            couponSoldOutRegistry.release(couponId);
+        }
+        return refreshed;
+    }
 }
@@ -1,31 +1,83 @@
 package com.fem.couponcore.service;
 
+import com.fem.couponcore.component.CouponQuantityLeaseManager;
 import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCode;
+import com.fem.couponcore.repository.redis.CouponIssueTrackingType;
 import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import com.fem.couponcore.repository.redis.dto.CouponIssueScriptRequest;
 import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static com.fem.couponcore.exception.ErrorCode.DUPLICATED_COUPON_ISSUE;
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
 import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
-import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static com.fem.couponcore.util.CouponRedisUtils.*;
 
 @Service
 @RequiredArgsConstructor
 public class CouponIssueRedisService {
+    private static final long MAX_BITMAP_OFFSET = (1L << 32) - 1;
+
     private final CouponRedisRepository couponRedisRepository;
+    private final CouponIssueQueue couponIssueQueue;
+    private final CouponQuantityLeaseManager couponQuantityLeaseManager;
+
+    @Value("${coupon.tracking.type:set}")
+    private CouponIssueTrackingType trackingType;
+
+    /**
+     * bitmap 에 기록할 수 있는 최대 userId. SETBIT 는 offset 까지 bitmap 을 늘리므로 큰 userId 하나로 쿠폰마다 최대 512MB 를 쓴다.
+     */
+    @Value("${coupon.tracking.max-user-id:10000000}")
+    private long maxUserId;
+
+    /**
+     * 발급 요청 사용자를 bitmap 에 기록하는지 여부. 사용자 set 을 분할한 쿠폰은 분할된 set 을 사용한다.
+     */
+    public boolean isBitmapTracked(CouponRedisEntity coupon) {
+        return trackingType == CouponIssueTrackingType.BITMAP && !coupon.isUserSharded();
+    }
+
+    /**
+     * 수량 검증을 노드가 미리 받은 lease 로 하는지 여부. 사용자 set 을 분할하거나 bitmap 에 기록하는 쿠폰은 lease 를 사용하지 않는다.
+     */
+    public boolean isLeased(CouponRedisEntity coupon) {
+        return couponQuantityLeaseManager.isEnabled() && coupon.totalQuantity() != null
+                && !coupon.isUserSharded() && !isBitmapTracked(coupon);
+    }
 
     public void checkCouponIssueQuantity(CouponRedisEntity couponRedisEntity, Long userId) {
-        if (!availableTotalIssueQuantity(couponRedisEntity.id(), couponRedisEntity.totalQuantity())) {
+        if (!availableTotalIssueQuantity(couponRedisEntity)) {
             throw new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, "발급 가능한 수량을 초과합니다. couponId : %s, userId : %s"
                     .formatted(couponRedisEntity.id(), userId));
         }
 
-        if (!availableUserIssueQuantity(couponRedisEntity.id(), userId)) {
+        if (!availableUserIssueQuantity(couponRedisEntity, userId)) {
             throw new CouponIssueException(DUPLICATED_COUPON_ISSUE, "이미 발급 요청이 처리됐습니다. couponId : %s, userId : %s"
                     .formatted(couponRedisEntity.id(), userId));
         }
     }
+
+    public boolean availableTotalIssueQuantity(CouponRedisEntity coupon) {
+        if (!coupon.isUserSharded() && !isBitmapTracked(coupon)) {
+            return availableTotalIssueQuantity(coupon.id(), coupon.totalQuantity());
+        }
+        if (coupon.totalQuantity() == null) {
+            return true;
+        }
+
+        return coupon.totalQuantity() > couponRedisRepository.getCount(getIssueRequestCountKey(coupon.id()));
+    }
+
     public boolean availableTotalIssueQuantity(Long couponId, Integer totalQuantity) {
         if (totalQuantity == null) {
             return true;
@@ -35,8 +87,145 @@ public class CouponIssueRedisService {
         return totalQuantity > couponRedisRepository.sCard(key);
     }
 
+    public boolean availableUserIssueQuantity(CouponRedisEntity coupon, Long userId) {
+        if (isBitmapTracked(coupon)) {
+            return !couponRedisRepository.getBit(getIssueRequestBitmapKey(coupon.id()), toBitmapOffset(coupon.id(), userId));
+        }
+        return !couponRedisRepository.sIsMember(getUserSetKey(coupon, userId), userId.toString());
+    }
+
     public boolean availableUserIssueQuantity(Long couponId, Long userId) {
         String key = getIssueRequestKey(couponId);
         return !couponRedisRepository.sIsMember(key, userId.toString());
     }
+
+    /**
+     * 사용자별 발급 요청 기록 여부를 userIds 순서대로 반환한다.
+     * bitmap 은 GETBIT 를 pipeline 으로, set 은 key 별 SMISMEMBER 한 번으로 조회한다.
+     */
+    public List<Boolean> findRequested(CouponRedisEntity coupon, List<Long> userIds) {
+        if (isBitmapTracked(coupon)) {
+            return findBitmapRequested(coupon, userIds);
+        }
+
+        Map<String, List<Integer>> indexesByKey = new LinkedHashMap<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            indexesByKey.computeIfAbsent(getUserSetKey(coupon, userIds.get(i)), key -> new ArrayList<>()).add(i);
+        }
+
+        Boolean[] requested = new Boolean[userIds.size()];
+        indexesByKey.forEach((key, indexes) -> {
+            List<String> members = indexes.stream().map(index -> userIds.get(index).toString()).toList();
+            List<Boolean> results = couponRedisRepository.sMIsMember(key, members);
+            for (int i = 0; i < indexes.size(); i++) {
+                requested[indexes.get(i)] = results.get(i);
+            }
+        });
+        return List.of(requested);
+    }
+
+    private List<Boolean> findBitmapRequested(CouponRedisEntity coupon, List<Long> userIds) {
+        List<Long> offsets = userIds.stream()
+                .filter(this::isBitmapOffset)
+                .toList();
+        List<Boolean> bits = couponRedisRepository.getBits(getIssueRequestBitmapKey(coupon.id()), offsets);
+
+        List<Boolean> requested = new ArrayList<>(userIds.size());
+        int bitIndex = 0;
+        for (Long userId : userIds) {
+            requested.add(isBitmapOffset(userId) && bits.get(bitIndex++));
+        }
+        return requested;
+    }
+
+    /**
+     * 사용자 set 을 분할한 쿠폰의 발급 요청을 처리한다.
+     * 분할된 set 은 SCARD 로 발급 수량을 셀 수 없어 발급 수량은 counter 로 관리한다.
+     * 중복 검증, 수량 검증, 기록, 큐 적재를 스크립트 하나로 처리하므로 동시 요청끼리 중간 상태를 보지 않는다.
+     */
+    public CouponIssueRequestCode issueShardedRequest(CouponRedisEntity coupon, Long userId, byte[] value) {
+        return couponRedisRepository.issueShardedRequest(getUserSetKey(coupon, userId), getIssueRequestCountKey(coupon.id()),
+                couponIssueQueue.getQueueKey(coupon.id()), couponIssueQueue.getType(), userId, value, coupon.totalQuantity());
+    }
+
+    /**
+     * 사용자 bitmap 에 발급 요청을 기록하는 쿠폰의 발급 요청을 처리한다.
+     * 중복 검증, 수량 검증, 기록은 스크립트 하나로 처리하고 발급 수량은 counter 로 관리한다.
+     * 큐 적재에 실패하면 기록과 발급 수량을 되돌린다.
+     */
+    public CouponIssueRequestCode issueBitmapRequest(CouponRedisEntity coupon, Long userId, byte[] value) {
+        String bitmapKey = getIssueRequestBitmapKey(coupon.id());
+        String countKey = getIssueRequestCountKey(coupon.id());
+        long offset = toBitmapOffset(coupon.id(), userId);
+        CouponIssueRequestCode code = couponRedisRepository.issueBitmapRequest(bitmapKey, countKey, offset, coupon.totalQuantity());
+        if (!code.isSuccess()) {
+            return code;
+        }
+
+        try {
+            couponIssueQueue.push(coupon.id(), value);
+        } catch (RuntimeException e) {
+            couponRedisRepository.decr(countKey);
+            couponRedisRepository.clearBit(bitmapKey, offset);
+            throw e;
+        }
+        return CouponIssueRequestCode.SUCCESS;
+    }
+
+    /**
+     * lease 에서 수량 하나를 받아 발급 요청을 적재한다.
+     * 스크립트 실행 전에 lease 가 반납됐다면 새 lease 로 한 번 더 시도한다.
+     * lease 를 받지 못하면 INVALID_COUPON_ISSUE_QUANTITY 를 반환한다. 이 노드의 수량이 소진된 것이라 소진 기록은 남기지 않는다.
+     */
+    public CouponIssueRequestCode issueLeasedRequest(CouponRedisEntity coupon, Long userId, byte[] value) {
+        CouponIssueRequestCode code = CouponIssueRequestCode.LEASE_EXPIRED;
+        for (int attempt = 0; attempt < 2 && code == CouponIssueRequestCode.LEASE_EXPIRED; attempt++) {
+            String leaseId = couponQuantityLeaseManager.acquire(coupon.id(), coupon.totalQuantity());
+            if (leaseId == null) {
+                return CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY;
+            }
+
+            try {
+                code = couponRedisRepository.issueRequest(toLeasedScriptRequest(coupon.id(), userId, value, leaseId));
+            } catch (RuntimeException e) {
+                couponQuantityLeaseManager.giveBack(coupon.id(), leaseId);
+                throw e;
+            }
+            giveBackIfNotIssued(coupon.id(), leaseId, code);
+        }
+        return code;
+    }
+
+    public CouponIssueScriptRequest toLeasedScriptRequest(Long couponId, Long userId, byte[] value, String leaseId) {
+        return new CouponIssueScriptRequest(getIssueRequestKey(couponId), couponIssueQueue.getQueueKey(couponId),
+                couponIssueQueue.getType(), userId, value, null, getIssueLeaseKey(couponId), leaseId);
+    }
+
+    /**
+     * 중복 발급으로 사용하지 않은 lease 수량을 되돌린다.
+     */
+    public void giveBackIfNotIssued(Long couponId, String leaseId, CouponIssueRequestCode code) {
+        if (code == CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE) {
+            couponQuantityLeaseManager.giveBack(couponId, leaseId);
+        }
+    }
+
+    private long toBitmapOffset(Long couponId, Long userId) {
+        if (!isBitmapOffset(userId)) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "bitmap 에 기록할 수 없는 userId 입니다. couponId : %s, userId : %s, maxUserId : %s"
+                    .formatted(couponId, userId, maxUserId));
+        }
+        return userId;
+    }
+
+    private boolean isBitmapOffset(Long userId) {
+        return userId >= 0 && userId <= Math.min(maxUserId, MAX_BITMAP_OFFSET);
+    }
+
+    private String getUserSetKey(CouponRedisEntity coupon, Long userId) {
+        if (!coupon.isUserSharded()) {
+            return getIssueRequestKey(coupon.id());
+        }
+        return getIssueRequestShardKey(coupon.id(), userId, coupon.userShardCount());
+    }
 }
@@ -1,26 +1,48 @@
 package com.fem.couponcore.service;
 
+import com.fem.couponcore.component.CouponIssueBloomFilter;
 import com.fem.couponcore.exception.CouponIssueException;
 import com.fem.couponcore.exception.ErrorCode;
 import com.fem.couponcore.model.Coupon;
 import com.fem.couponcore.model.CouponIssue;
+import com.fem.couponcore.model.CouponIssuedQuantityDelta;
+import com.fem.couponcore.repository.mysql.CouponIssueJdbcRepository;
 import com.fem.couponcore.repository.mysql.CouponIssueJpaRepository;
 import com.fem.couponcore.repository.mysql.CouponIssueRepository;
+import com.fem.couponcore.repository.mysql.CouponIssuedQuantityDeltaJpaRepository;
 import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.service.dto.UserCoupon;
+import com.fem.couponcore.service.dto.UserCouponPage;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import static com.fem.couponcore.exception.ErrorCode.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CouponIssueService {
+    private static final int MAX_USER_COUPON_PAGE_SIZE = 100;
+
     private final CouponJpaRepository couponJpaRepository;
     private final CouponIssueRepository couponIssueRepository;
     private final CouponIssueJpaRepository couponIssueJpaRepository;
+    private final CouponIssueJdbcRepository couponIssueJdbcRepository;
+    private final CouponIssuedQuantityDeltaJpaRepository couponIssuedQuantityDeltaJpaRepository;
+    private final CouponIssueBloomFilter couponIssueBloomFilter;
 
     @Transactional
     public void issue(Long couponId, Long userId) {
@@ -36,12 +58,85 @@ public class CouponIssueService {
         saveCouponIssue(couponId, userId);
     }
 
+    /**
+     * 조건부 update 한 번으로 수량과 기간을 검증하며 발급 수량을 증가시키고, 성공한 경우에만 발급 내역을 저장한다.
+     * 소진된 쿠폰의 요청은 insert 와 rollback 없이 update 한 번으로 끝난다.
+     * 중복 발급은 (coupon_id, user_id) unique index 로 막으므로 조회 쿼리가 없고, 중복이면 발급 수량 증가도 rollback 된다.
+     */
+    @Transactional
+    public void issueWithConditionalUpdate(Long couponId, Long userId) {
+        if (couponJpaRepository.issueIfAvailable(couponId, LocalDateTime.now()) == 0) {
+            throw issueFailure(couponId);
+        }
+
+        try {
+            couponIssueJdbcRepository.insert(couponId, userId);
+        } catch (DataIntegrityViolationException e) {
+            throw new CouponIssueException(DUPLICATED_COUPON_ISSUE, "이미 발급된 쿠폰입니다. userId: %s, couponId: %s".formatted(userId, couponId));
+        }
+        putBloomFilterAfterCommit(couponId, List.of(userId));
+    }
+
+    /**
+     * 이미 저장된 발급 내역을 제외하고 발급 내역만 저장한다. 저장한 건수를 반환한다.
+     * 쿠폰 row 는 갱신하지 않고 늘어난 발급 수량을 같은 트랜잭션에서 기록한다. 발급 수량은 flushIssuedQuantity 로 반영한다.
+     * 같은 발급 요청이 다시 전달되면 저장할 발급 내역이 없으므로 발급 수량도 다시 기록하지 않는다.
+     */
+    @Transactional
+    public int saveCouponIssues(Long couponId, List<Long> userIds) {
+        Set<Long> issuedUserIds = userIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(couponIssueRepository.findIssuedUserIds(couponId, userIds));
+        List<Long> newUserIds = userIds.stream()
+                .distinct()
+                .filter(userId -> !issuedUserIds.contains(userId))
+                .toList();
+        if (newUserIds.isEmpty()) {
+            return 0;
+        }
+
+        couponIssueJdbcRepository.batchInsert(couponId, newUserIds);
+        couponIssuedQuantityDeltaJpaRepository.save(CouponIssuedQuantityDelta.builder()
+                .couponId(couponId)
+                .quantity(newUserIds.size())
+                .build());
+        putBloomFilterAfterCommit(couponId, newUserIds);
+        return newUserIds.size();
+    }
+
+    /**
+     * 기록된 발급 수량 증가분을 최대 batchSize 건 읽어 쿠폰별로 합산하고, 쿠폰마다 update 한 번으로 발급 수량에 더한다.
+     * 반영한 증가분은 같은 트랜잭션에서 삭제하므로 중간에 실패하거나 여러 consumer 가 동시에 실행해도 한 번만 반영된다.
+     * 쿠폰 row 는 쿠폰 id 순서로 갱신하여 consumer 사이의 deadlock 을 피한다. 읽은 증가분 건수를 반환한다.
+     */
+    @Transactional
+    public int flushIssuedQuantity(int batchSize) {
+        List<CouponIssuedQuantityDelta> deltas = couponIssuedQuantityDeltaJpaRepository.findAllWithLock(PageRequest.of(0, batchSize));
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> quantityByCouponId = new TreeMap<>();
+        deltas.forEach(delta -> quantityByCouponId.merge(delta.getCouponId(), delta.getQuantity(), Integer::sum));
+        quantityByCouponId.forEach((couponId, quantity) -> {
+            if (couponJpaRepository.increaseIssuedQuantity(couponId, quantity) == 0) {
+                log.error("발급 수량을 반영할 쿠폰이 없습니다. couponId : {}, quantity : {}", couponId, quantity);
+            }
+        });
+        couponIssuedQuantityDeltaJpaRepository.deleteAllByIdInBatch(deltas.stream().map(CouponIssuedQuantityDelta::getId).toList());
+        return deltas.size();
+    }
+
     @Transactional
     public Coupon findCouponWithLock(Long couponId) {
         return couponJpaRepository.findByIdWithLock(couponId)
                 .orElseThrow(() -> new CouponIssueException(COUPON_NOT_EXIST, "쿠폰 정책이 존재하지 않습니다. %s".formatted(couponId)));
     }
 
+    /**
+     * bloom filter 가 발급되지 않은 사용자라고 판단하면 중복 발급 조회를 건너뛴다.
+     * filter 에 반영되지 않은 발급 내역은 (coupon_id, user_id) unique index 로 막는다.
+     */
     @Transactional
     public CouponIssue saveCouponIssue(Long couponId, Long userId) {
         checkAlreadyIssuance(couponId, userId);
@@ -50,7 +145,14 @@ public class CouponIssueService {
                 .userId(userId)
                 .build();
 
-        return couponIssueJpaRepository.save(issue);
+        CouponIssue saved;
+        try {
+            saved = couponIssueJpaRepository.save(issue);
+        } catch (DataIntegrityViolationException e) {
+            throw new CouponIssueException(DUPLICATED_COUPON_ISSUE, "이미 발급된 쿠폰입니다. userId: %s, couponId: %s".formatted(userId, couponId));
+        }
+        putBloomFilterAfterCommit(couponId, List.of(userId));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -59,9 +161,52 @@ public class CouponIssueService {
                 .orElseThrow(() -> new CouponIssueException(COUPON_NOT_EXIST, "쿠폰 정책이 존재하지 않습니다. %s".formatted(couponId)));
     }
 
+    /**
+     * 사용자의 발급 쿠폰을 cursor 이후부터 size 만큼 조회한다. used 가 null 이면 사용 여부와 관계없이 조회한다.
+     */
+    @Transactional(readOnly = true)
+    public UserCouponPage findUserCoupons(Long userId, Boolean used, Long cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_USER_COUPON_PAGE_SIZE);
+        List<UserCoupon> coupons = couponIssueRepository.findUserCoupons(userId, used, cursor, pageSize + 1);
+        if (coupons.size() <= pageSize) {
+            return new UserCouponPage(coupons, null);
+        }
+
+        List<UserCoupon> page = coupons.subList(0, pageSize);
+        return new UserCouponPage(List.copyOf(page), page.get(pageSize - 1).couponIssueId());
+    }
+
+    /**
+     * rollback 된 발급 내역이 filter 에 남지 않도록 commit 후에 filter 에 추가한다.
+     */
+    private void putBloomFilterAfterCommit(Long couponId, List<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIds.forEach(userId -> couponIssueBloomFilter.put(couponId, userId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userIds.forEach(userId -> couponIssueBloomFilter.put(couponId, userId));
+            }
+        });
+    }
+
+    private CouponIssueException issueFailure(Long couponId) {
+        Coupon coupon = findCoupon(couponId);
+        if (!coupon.availableIssuedDate()) {
+            return new CouponIssueException(INVALID_COUPON_ISSUE_DATE, "발급 가능한 일자가 아닙니다. couponId : %s, issueStart : %s issueEnd : %s"
+                    .formatted(couponId, coupon.getDateIssueStart(), coupon.getDateIssueEnd()));
+        }
+        return new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, "발급 가능한 수량을 초과합니다. total : %s issued: %s"
+                .formatted(coupon.getTotalQuantity(), coupon.getIssuedQuantity()));
+    }
+
     private void checkAlreadyIssuance(Long couponId, Long userId) {
-        Optional<CouponIssue> couponIssue = couponIssueRepository.findFirstCouponIssue(couponId, userId);
-        if (couponIssue.isPresent()) {
+        if (!couponIssueBloomFilter.mightContain(couponId, userId)) {
+            return;
+        }
+        if (couponIssueRepository.existsCouponIssue(couponId, userId)) {
             throw new CouponIssueException(DUPLICATED_COUPON_ISSUE, "이미 발급된 쿠폰입니다. userId: %s, couponId: %s".formatted(userId, couponId));
         }
     }
@@ -0,0 +1,87 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.exception.ErrorCode;
+import com.fem.couponcore.repository.redis.CouponIssueStatusRepository;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.service.dto.CouponIssueStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static com.fem.couponcore.service.dto.CouponIssueStatus.Status.*;
+
+/**
+ * 비동기 발급 요청의 처리 상태를 redis 에서 조회한다.
+ * consumer 가 기록한 결과가 있으면 그대로 반환하고, 없으면 발급 요청 기록(set, bitmap) 으로 처리 대기 여부를 판단한다.
+ * 데이터베이스와 lock 을 사용하지 않으므로 발급 요청보다 훨씬 자주 호출해도 된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CouponIssueStatusService {
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final CouponIssueStatusRepository couponIssueStatusRepository;
+    private final CouponIssueRedisService couponIssueRedisService;
+    private final CouponCacheService couponCacheService;
+
+    public CouponIssueStatus getStatus(Long couponId, Long userId) {
+        String status = couponIssueStatusRepository.find(couponId, userId);
+        if (status != null) {
+            return toStatus(couponId, userId, status);
+        }
+
+        CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
+        boolean requested = couponIssueRedisService.findRequested(coupon, List.of(userId)).get(0);
+        return new CouponIssueStatus(couponId, userId, requested ? QUEUED : NOT_REQUESTED, null);
+    }
+
+    /**
+     * 여러 사용자의 상태를 요청 순서대로 조회한다. 결과는 HMGET 한 번으로, 처리 대기 여부는 결과가 없는 사용자만 모아 조회한다.
+     */
+    public List<CouponIssueStatus> getStatuses(Long couponId, List<Long> userIds) {
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "한 번에 조회할 수 있는 사용자 수를 초과합니다. size : %s, max : %s"
+                    .formatted(userIds.size(), MAX_BATCH_SIZE));
+        }
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> statuses = couponIssueStatusRepository.findAll(couponId, userIds);
+        CouponIssueStatus[] results = new CouponIssueStatus[userIds.size()];
+        List<Integer> pendingIndexes = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            if (statuses.get(i) == null) {
+                pendingIndexes.add(i);
+            } else {
+                results[i] = toStatus(couponId, userIds.get(i), statuses.get(i));
+            }
+        }
+
+        if (!pendingIndexes.isEmpty()) {
+            CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
+            List<Long> pendingUserIds = pendingIndexes.stream().map(userIds::get).toList();
+            List<Boolean> requested = couponIssueRedisService.findRequested(coupon, pendingUserIds);
+            for (int i = 0; i < pendingIndexes.size(); i++) {
+                results[pendingIndexes.get(i)] = new CouponIssueStatus(couponId, pendingUserIds.get(i),
+                        requested.get(i) ? QUEUED : NOT_REQUESTED, null);
+            }
+        }
+        return List.of(results);
+    }
+
+    private CouponIssueStatus toStatus(Long couponId, Long userId, String status) {
+        if (CouponIssueStatusRepository.ISSUED.equals(status)) {
+            return new CouponIssueStatus(couponId, userId, ISSUED, null);
+        }
+
+        ErrorCode errorCode = status.startsWith(CouponIssueStatusRepository.FAILED_PREFIX)
+                ? ErrorCode.valueOf(status.substring(CouponIssueStatusRepository.FAILED_PREFIX.length()))
+                : FAIL_COUPON_ISSUE_REQUEST;
+        return new CouponIssueStatus(couponId, userId, FAILED, errorCode.message);
+    }
+}
@@ -0,0 +1,202 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.component.CouponIssueMetrics;
+import com.fem.couponcore.component.CouponSoldOutRegistry;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.exception.ErrorCode;
+import com.fem.couponcore.repository.redis.WaitingRoomRepository;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.service.dto.CouponIssueResult;
+import com.fem.couponcore.service.dto.WaitingRoomStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_DATE;
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
+import static com.fem.couponcore.service.dto.WaitingRoomStatus.Status.*;
+
+/**
+ * 발급 이벤트 대기열
+ * 사용자는 도착 순서대로 대기열에 들어가고, 쿠폰별 초당 입장 수 만큼만 발급 요청(AsyncCouponIssueServiceV2)으로 입장한다.
+ * 발급 경로의 부하는 대기 중인 사용자 수가 아니라 초당 입장 수로 정해진다.
+ * 입장한 사용자는 결과가 저장될 때까지 처리 중으로 남고, 발급 요청에 실패하면 대기열 맨 앞으로 되돌아간다.
+ * 대기열을 연 쿠폰은 입장 처리에서만 발급 요청하므로, 발급 api 로 직접 들어온 요청은 checkNotOpened 로 거절한다.
+ */
+@Slf4j
+@Service
+public class WaitingRoomService {
+    private static final String ISSUED_RESULT = "ISSUED";
+
+    private final WaitingRoomRepository waitingRoomRepository;
+    private final CouponCacheService couponCacheService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final AsyncCouponIssueServiceV2 asyncCouponIssueServiceV2;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final int admissionRate;
+    private final long admissionInterval;
+    private final long processingTimeout;
+    private final Cache<Long, Boolean> opened;
+
+    public WaitingRoomService(WaitingRoomRepository waitingRoomRepository,
+                              CouponCacheService couponCacheService,
+                              CouponSoldOutRegistry couponSoldOutRegistry,
+                              AsyncCouponIssueServiceV2 asyncCouponIssueServiceV2,
+                              CouponIssueMetrics couponIssueMetrics,
+                              @Value("${coupon.waiting-room.admission-rate:1000}") int admissionRate,
+                              @Value("${coupon.waiting-room.admission-interval:100}") long admissionInterval,
+                              @Value("${coupon.waiting-room.processing-timeout:30000}") long processingTimeout,
+                              @Value("${coupon.waiting-room.opened-cache-ttl:1s}") Duration openedCacheTtl) {
+        this.waitingRoomRepository = waitingRoomRepository;
+        this.couponCacheService = couponCacheService;
+        this.couponSoldOutRegistry = couponSoldOutRegistry;
+        this.asyncCouponIssueServiceV2 = asyncCouponIssueServiceV2;
+        this.couponIssueMetrics = couponIssueMetrics;
+        this.admissionRate = admissionRate;
+        this.admissionInterval = admissionInterval;
+        this.processingTimeout = processingTimeout;
+        this.opened = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(openedCacheTtl)
+                .build();
+    }
+
+    /**
+     * 쿠폰의 대기열을 연다. 이후 이 쿠폰은 대기열에서 입장한 사용자만 발급 요청된다.
+     */
+    public void open(Long couponId) {
+        waitingRoomRepository.open(couponId);
+        opened.invalidate(couponId);
+    }
+
+    /**
+     * 쿠폰의 대기열을 닫는다. 새로 들어오는 사용자는 받지 않고, 이미 대기 중인 사용자는 계속 입장시킨다.
+     */
+    public void close(Long couponId) {
+        waitingRoomRepository.close(couponId);
+        opened.invalidate(couponId);
+    }
+
+    /**
+     * 대기열 여부는 발급 요청마다 확인하므로 노드 로컬에 opened-cache-ttl 동안 기록한다.
+     */
+    public boolean isOpened(Long couponId) {
+        return opened.get(couponId, waitingRoomRepository::isOpened);
+    }
+
+    /**
+     * 대기열을 연 쿠폰의 발급은 입장 처리가 대신 요청하므로, 발급 api 로 직접 들어온 요청을 거절한다.
+     * 대기열을 거치지 않은 요청이 발급 경로에 들어오면 발급 부하가 초당 입장 수로 제한되지 않는다.
+     */
+    public void checkNotOpened(Long couponId) {
+        if (isOpened(couponId)) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "대기열을 통해서만 발급할 수 있는 쿠폰입니다. couponId : %s"
+                    .formatted(couponId));
+        }
+    }
+
+    /**
+     * 대기열을 연 쿠폰의 대기열에 들어간다. 앞에 들어온 사용자만으로 최대 발급 수량이 채워졌으면 바로 거절한다.
+     */
+    public WaitingRoomStatus enter(Long couponId, Long userId) {
+        if (!isOpened(couponId)) {
+            throw new CouponIssueException(FAIL_COUPON_ISSUE_REQUEST, "대기열이 없는 쿠폰입니다. couponId : %s".formatted(couponId));
+        }
+        CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
+        if (coupon.isIssueEnded()) {
+            throw new CouponIssueException(INVALID_COUPON_ISSUE_DATE, "발급 기간이 끝난 쿠폰입니다. couponId : %s, issueEnd : %s"
+                    .formatted(couponId, coupon.dateIssueEnd()));
+        }
+        couponSoldOutRegistry.checkSoldOut(couponId);
+
+        long rank = waitingRoomRepository.enter(couponId, userId, coupon.totalQuantity(), System.currentTimeMillis());
+        if (rank == WaitingRoomRepository.REJECTED) {
+            throw new CouponIssueException(INVALID_COUPON_ISSUE_QUANTITY, "대기 순번이 발급 가능한 수량을 초과합니다. couponId : %s, total : %s"
+                    .formatted(couponId, coupon.totalQuantity()));
+        }
+        if (rank == WaitingRoomRepository.ALREADY_ADMITTED) {
+            return getStatus(couponId, userId);
+        }
+        return WaitingRoomStatus.waiting(couponId, userId, rank);
+    }
+
+    public WaitingRoomStatus getStatus(Long couponId, Long userId) {
+        Long rank = waitingRoomRepository.findRank(couponId, userId);
+        if (rank != null) {
+            return WaitingRoomStatus.waiting(couponId, userId, rank);
+        }
+
+        String result = waitingRoomRepository.findResult(couponId, userId);
+        if (result == null) {
+            if (waitingRoomRepository.isProcessing(couponId, userId)) {
+                return WaitingRoomStatus.waiting(couponId, userId, 0L);
+            }
+            return WaitingRoomStatus.of(couponId, userId, NOT_IN_QUEUE, null);
+        }
+        if (ISSUED_RESULT.equals(result)) {
+            return WaitingRoomStatus.of(couponId, userId, ISSUED, null);
+        }
+        return WaitingRoomStatus.of(couponId, userId, FAILED, ErrorCode.valueOf(result).message);
+    }
+
+    /**
+     * 초당 입장 수 만큼 대기열 앞의 사용자를 꺼내 발급 요청하고 결과를 저장한다. 입장시킨 사용자 수를 반환한다.
+     * 발급 시작 전에는 입장시키지 않는다.
+     * 발급 요청이나 결과 저장에 실패하면 입장시킨 사용자를 대기열로 되돌리고, processingTimeout 이 지나도록 결과가 없는
+     * 사용자(입장 처리 중 노드가 죽은 경우)도 대기열로 되돌린다.
+     */
+    public int admit(Long couponId) {
+        CouponRedisEntity coupon = couponCacheService.getCouponCache(couponId);
+        if (!coupon.isIssueStarted()) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        long requeued = waitingRoomRepository.requeueStale(couponId, now - processingTimeout);
+        if (requeued > 0) {
+            log.warn("결과 없이 남은 입장 처리를 대기열로 되돌림. couponId : {}, count : {}", couponId, requeued);
+        }
+
+        List<Long> userIds = waitingRoomRepository.admit(couponId, admissionRate, admissionInterval, now);
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            issue(couponId, userIds);
+        } catch (RuntimeException e) {
+            waitingRoomRepository.requeue(couponId, userIds);
+            throw e;
+        }
+        return userIds.size();
+    }
+
+    private void issue(Long couponId, List<Long> userIds) {
+        List<CouponIssueRequest> requests = userIds.stream()
+                .map(userId -> new CouponIssueRequest(couponId, userId))
+                .toList();
+        Map<String, String> results = new HashMap<>();
+        for (CouponIssueResult result : asyncCouponIssueServiceV2.issueAll(requests)) {
+            results.put(result.userId().toString(), result.isSuccess() ? ISSUED_RESULT : result.errorCode().name());
+            couponIssueMetrics.recordResult("waiting_room", couponId, result.errorCode());
+        }
+        waitingRoomRepository.complete(couponId, results, ISSUED_RESULT);
+    }
+
+    public void updateAdmissionRate(Long couponId, int rate) {
+        waitingRoomRepository.updateAdmissionRate(couponId, rate);
+    }
+
+    public List<Long> findWaitingCouponIds() {
+        return List.copyOf(waitingRoomRepository.findWaitingCouponIds());
+    }
+}
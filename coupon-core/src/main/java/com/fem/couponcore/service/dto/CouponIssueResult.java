@@ -0,0 +1,17 @@
+package com.fem.couponcore.service.dto;
+
+import com.fem.couponcore.exception.ErrorCode;
+
+/**
+ * 쿠폰 발급 요청 결과. 성공하면 errorCode 는 null 이다.
+ */
+public record CouponIssueResult(Long couponId, Long userId, ErrorCode errorCode) {
+
+    public static CouponIssueResult success(Long couponId, Long userId) {
+        return new CouponIssueResult(couponId, userId, null);
+    }
+
+    public boolean isSuccess() {
+        return errorCode == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.fem.couponcore.service.dto;
+
+/**
+ * 비동기 발급 요청의 처리 상태. FAILED 이면 message 는 실패 사유이다.
+ * QUEUED 는 발급 요청이 기록됐지만 consumer 가 아직 저장하지 않은 상태이다.
+ */
+public record CouponIssueStatus(Long couponId, Long userId, Status status, String message) {
+
+    public enum Status {
+        QUEUED, ISSUED, FAILED, NOT_REQUESTED
+    }
+}
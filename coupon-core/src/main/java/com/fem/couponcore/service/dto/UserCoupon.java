@@ -0,0 +1,10 @@
+package com.fem.couponcore.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자가 발급받은 쿠폰. dateUsed 가 null 이면 사용하지 않은 쿠폰이다.
+ */
+public record UserCoupon(Long couponIssueId, Long couponId, String title, Integer discountAmount,
+                         Integer minAvailableAmount, LocalDateTime dateIssued, LocalDateTime dateUsed) {
+}
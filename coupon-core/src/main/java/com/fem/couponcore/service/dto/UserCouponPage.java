@@ -0,0 +1,9 @@
+package com.fem.couponcore.service.dto;
+
+import java.util.List;
+
+/**
+ * 발급 내역 id 역순으로 조회한 사용자 쿠폰 목록. 다음 페이지가 없으면 nextCursor 는 null 이다.
+ */
+public record UserCouponPage(List<UserCoupon> coupons, Long nextCursor) {
+}
@@ -0,0 +1,19 @@
+package com.fem.couponcore.service.dto;
+
+/**
+ * 대기열 상태. WAITING 이면 rank 는 앞에 대기 중인 사용자 수이고, FAILED 이면 message 는 발급 실패 사유이다.
+ */
+public record WaitingRoomStatus(Long couponId, Long userId, Status status, Long rank, String message) {
+
+    public enum Status {
+        WAITING, ISSUED, FAILED, NOT_IN_QUEUE
+    }
+
+    public static WaitingRoomStatus waiting(Long couponId, Long userId, long rank) {
+        return new WaitingRoomStatus(couponId, userId, Status.WAITING, rank, null);
+    }
+
+    public static WaitingRoomStatus of(Long couponId, Long userId, Status status, String message) {
+        return new WaitingRoomStatus(couponId, userId, status, null, message);
+    }
+}
@@ -5,10 +5,90 @@ public class CouponRedisUtils {
         return "issue:request:couponId:%s".formatted(couponId);
     }
 
+    public static String getIssueRequestShardKey(Long couponId, Long userId, int shardCount) {
+        return "issue:request:couponId:%s:shard:%s".formatted(couponId, Math.floorMod(userId.hashCode(), shardCount));
+    }
+
+    public static String getIssueRequestBitmapKey(Long couponId) {
+        return "issue:request:bitmap:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueRequestCountKey(Long couponId) {
+        return "issue:request:count:couponId:%s".formatted(couponId);
+    }
+
     public static String getIssueRequestQueueKey(Long couponId) {
         return "issue:request:queue:couponId:%s".formatted(couponId);
     }
 
+    public static String getIssueRequestQueueKeyPattern() {
+        return "issue:request:queue:couponId:*";
+    }
+
+    public static String getIssueRequestStreamKey(Long couponId) {
+        return "issue:request:stream:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueRequestStreamKeyPattern() {
+        return "issue:request:stream:couponId:*";
+    }
+
+    public static String getIssueRequestFailedQueueKey(Long couponId) {
+        return "issue:request:failed:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueStatusKey(Long couponId) {
+        return "issue:status:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueLeaseRemainingKey(Long couponId) {
+        return "issue:lease:remaining:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueLeaseKey(Long couponId) {
+        return "issue:lease:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueLeaseExpiryKey(Long couponId) {
+        return "issue:lease:expiry:couponId:%s".formatted(couponId);
+    }
+
+    public static String getIssueLeaseExpiryKeyPattern() {
+        return "issue:lease:expiry:couponId:*";
+    }
+
+    public static String getWaitingRoomKey(Long couponId) {
+        return "waiting:couponId:%s".formatted(couponId);
+    }
+
+    public static String getWaitingRoomCouponsKey() {
+        return "waiting:coupons";
+    }
+
+    public static String getWaitingRoomOpenedCouponsKey() {
+        return "waiting:opened";
+    }
+
+    public static String getWaitingRoomEnteredCountKey(Long couponId) {
+        return "waiting:entered:couponId:%s".formatted(couponId);
+    }
+
+    public static String getWaitingRoomProcessingKey(Long couponId) {
+        return "waiting:processing:couponId:%s".formatted(couponId);
+    }
+
+    public static String getWaitingRoomResultKey(Long couponId) {
+        return "waiting:result:couponId:%s".formatted(couponId);
+    }
+
+    public static String getWaitingRoomAdmissionRateKey(Long couponId) {
+        return "waiting:rate:couponId:%s".formatted(couponId);
+    }
+
+    public static String getWaitingRoomAdmissionCountKey(Long couponId, long epochSecond) {
+        return "waiting:admission:couponId:%s:%s".formatted(couponId, epochSecond);
+    }
+
     public static String getLockKey(Long couponId) {
         return "lock:%s".formatted(couponId);
     }
@@ -0,0 +1,10 @@
+-- consumer 가 발급 내역 저장 batch 마다 늘어난 발급 수량을 기록하는 테이블
+-- ddl-auto 를 사용하지 않는 환경(local, 운영)에 적용한다.
+
+CREATE TABLE coupon_issued_quantity_deltas
+(
+    id        BIGINT NOT NULL AUTO_INCREMENT,
+    coupon_id BIGINT NOT NULL,
+    quantity  INT    NOT NULL,
+    PRIMARY KEY (id)
+);
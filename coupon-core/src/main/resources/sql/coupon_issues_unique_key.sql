@@ -0,0 +1,8 @@
+-- 조건부 update 발급(/v4/issue) 과 발급 내역 저장 시 중복 발급을 막는 unique key
+-- ddl-auto 를 사용하지 않는 환경(local, 운영)에 적용한다.
+-- 이미 중복 발급된 내역이 있으면 unique key 를 추가할 수 없으므로 먼저 확인하고 정리한다.
+--
+-- SELECT coupon_id, user_id, COUNT(*) FROM coupon_issues GROUP BY coupon_id, user_id HAVING COUNT(*) > 1;
+
+ALTER TABLE coupon_issues
+    ADD CONSTRAINT uk_coupon_issues_coupon_id_user_id UNIQUE (coupon_id, user_id);
@@ -0,0 +1,5 @@
+-- 사용자 쿠폰 조회(CouponIssueRepository.findUserCoupons) 의 keyset 조회를 index 만으로 처리하는 covering index
+-- ddl-auto 를 사용하지 않는 환경(local, 운영)에 적용한다.
+
+CREATE INDEX idx_coupon_issues_user_id_id
+    ON coupon_issues (user_id, id, date_used, coupon_id, date_issued);
@@ -0,0 +1,126 @@
+package com.fem.couponcore.cache;
+
+import com.fem.couponcore.TestConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayeredCacheTest extends TestConfig {
+
+    @Autowired LayeredCacheManager cacheManager;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+        cacheManager.getCache("single-flight").clear();
+    }
+
+    @Test
+    @DisplayName("캐시 로드 - 같은 key 의 동시 캐시 miss 는 한 번만 로드하고 모두 같은 값을 받는다.")
+    void get_1() throws Exception {
+        // given
+        Cache cache = cacheManager.getCache("single-flight");
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int requestCount = 100;
+
+        // when
+        List<String> result;
+        try (ExecutorService executorService = Executors.newFixedThreadPool(32)) {
+            List<Future<String>> futures = IntStream.range(0, requestCount)
+                    .mapToObj(idx -> executorService.submit(() -> {
+                        start.await();
+                        return cache.get(1L, () -> {
+                            loadCount.incrementAndGet();
+                            Thread.sleep(100);
+                            return "coupon";
+                        });
+                    }))
+                    .toList();
+            start.countDown();
+            result = futures.stream()
+                    .map(future -> {
+                        try {
+                            return future.get();
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .toList();
+        }
+
+        // then
+        assertEquals(1, loadCount.get());
+        assertEquals(requestCount, result.size());
+        assertTrue(result.stream().allMatch("coupon"::equals));
+    }
+
+    @Test
+    @DisplayName("캐시 로드 - 로드에 실패하면 기다리던 요청도 같은 예외를 받고 다음 요청은 다시 로드한다.")
+    void get_2() {
+        // given
+        Cache cache = cacheManager.getCache("single-flight");
+
+        // when
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(2L, () -> {
+            throw new IllegalStateException("load fail");
+        }));
+        String result = cache.get(2L, () -> "coupon");
+
+        // then
+        assertEquals("coupon", result);
+    }
+
+    @Test
+    @DisplayName("캐시 통계 - 캐시 miss 로 로컬 캐시를 채우면 load 로 집계된다.")
+    void getStatistics_1() {
+        // given
+        Cache cache = cacheManager.getCache("load-statistics");
+
+        // when
+        cache.get(1L, () -> "coupon");
+        cache.get(1L, () -> "coupon");
+
+        // then
+        LayeredCacheStatistics statistics = cacheManager.getStatistics().stream()
+                .filter(each -> each.name().equals("load-statistics"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, statistics.local().loads());
+        assertEquals(1, statistics.local().hits());
+    }
+
+    @Test
+    @DisplayName("reload lease - 만료 후 다른 노드가 얻은 lease 는 이전 소유자가 반납해도 삭제되지 않는다.")
+    void releaseReloadLease_1() {
+        // given
+        String expiredToken = cacheManager.tryAcquireReloadLease("reload-lease", "1");
+        redisTemplate.delete(redisTemplate.keys("cache:reload-lease:*"));
+        String currentToken = cacheManager.tryAcquireReloadLease("reload-lease", "1");
+
+        // when
+        cacheManager.releaseReloadLease("reload-lease", "1", expiredToken);
+
+        // then
+        assertNotNull(currentToken);
+        assertNull(cacheManager.tryAcquireReloadLease("reload-lease", "1"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.model.CouponIssue;
+import com.fem.couponcore.repository.mysql.CouponIssueJpaRepository;
+import com.fem.couponcore.repository.mysql.CouponIssueRepository;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponIssueBloomFilterTest extends TestConfig {
+
+    @Autowired CouponIssueRepository couponIssueRepository;
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired CouponIssueJpaRepository couponIssueJpaRepository;
+    @Autowired CouponLockStripes couponLockStripes;
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void clean() {
+        couponJpaRepository.deleteAllInBatch();
+        couponIssueJpaRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("bloom filter - 이미 발급된 사용자는 항상 발급됐을 수 있다고 판단한다.")
+    void mightContain_1() {
+        // given
+        Long couponId = 1L;
+        LongStream.rangeClosed(1, 100).forEach(userId -> couponIssueJpaRepository.save(CouponIssue.builder()
+                .couponId(couponId)
+                .userId(userId)
+                .build()));
+        CouponIssueBloomFilter sut = bloomFilter(0.01);
+
+        // when
+        long contained = LongStream.rangeClosed(1, 100)
+                .filter(userId -> sut.mightContain(couponId, userId))
+                .count();
+
+        // then
+        assertEquals(100, contained);
+    }
+
+    @Test
+    @DisplayName("bloom filter - 발급 후 추가한 사용자도 발급됐을 수 있다고 판단하고, 오탐률은 설정한 값 근처이다.")
+    void mightContain_2() {
+        // given
+        Long couponId = 1L;
+        double fpp = 0.01;
+        CouponIssueBloomFilter sut = bloomFilter(fpp);
+        sut.mightContain(couponId, 0L);
+        LongStream.rangeClosed(1, 10_000).forEach(userId -> sut.put(couponId, userId));
+
+        // when
+        long falsePositives = LongStream.rangeClosed(10_001, 110_000)
+                .filter(userId -> sut.mightContain(couponId, userId))
+                .count();
+
+        // then
+        assertTrue(LongStream.rangeClosed(1, 10_000).allMatch(userId -> sut.mightContain(couponId, userId)));
+        assertTrue(falsePositives < 100_000 * fpp * 3);
+        assertEquals(CouponIssueBloomFilter.estimateBytes(100_000, fpp), meterRegistry.get("coupon.bloom.filter.bytes").gauge().value());
+        assertEquals(10_000, meterRegistry.get("coupon.bloom.filter.elements").gauge().value(), 100);
+    }
+
+    private CouponIssueBloomFilter bloomFilter(double fpp) {
+        return new CouponIssueBloomFilter(couponIssueRepository, couponJpaRepository, couponLockStripes,
+                meterRegistry, true, 100_000, fpp);
+    }
+}
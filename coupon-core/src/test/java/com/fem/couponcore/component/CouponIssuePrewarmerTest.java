@@ -0,0 +1,101 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponIssueJpaRepository;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.CouponQuantityLeaseRepository;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.service.CouponCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestCountKey;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponIssuePrewarmerTest extends TestConfig {
+
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired CouponIssueJpaRepository couponIssueJpaRepository;
+    @Autowired CouponCacheService couponCacheService;
+    @Autowired CouponRedisRepository couponRedisRepository;
+    @Autowired CouponQuantityLeaseRepository couponQuantityLeaseRepository;
+    @Autowired CouponQuantityLeaseManager couponQuantityLeaseManager;
+    @Autowired CouponIssueBloomFilter couponIssueBloomFilter;
+    @Autowired CacheManager cacheManager;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clean() {
+        couponJpaRepository.deleteAllInBatch();
+        couponIssueJpaRepository.deleteAllInBatch();
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+        cacheManager.getCache("coupon").clear();
+    }
+
+    @Test
+    @DisplayName("발급 준비 - 발급 시작이 가까운 쿠폰의 캐시와 발급 수량 counter 를 미리 만든다.")
+    void prewarm_1() {
+        // given
+        Coupon coupon = saveCoupon(LocalDateTime.now().plusMinutes(5));
+        CouponIssuePrewarmer sut = prewarmer(Duration.ofMinutes(10));
+
+        // when
+        int result = sut.prewarm();
+
+        // then
+        assertEquals(1, result);
+        CouponRedisEntity cached = cacheManager.getCache("coupon").get(coupon.getId(), CouponRedisEntity.class);
+        assertNotNull(cached);
+        assertEquals(coupon.getId(), cached.id());
+        assertEquals("0", redisTemplate.opsForValue().get(getIssueRequestCountKey(coupon.getId())));
+    }
+
+    @Test
+    @DisplayName("발급 준비 - 발급 시작이 멀거나 이미 시작된 쿠폰은 준비하지 않는다.")
+    void prewarm_2() {
+        // given
+        Coupon later = saveCoupon(LocalDateTime.now().plusHours(1));
+        Coupon started = saveCoupon(LocalDateTime.now().minusMinutes(1));
+        CouponIssuePrewarmer sut = prewarmer(Duration.ofMinutes(10));
+
+        // when
+        int result = sut.prewarm();
+
+        // then
+        assertEquals(0, result);
+        assertNull(cacheManager.getCache("coupon").get(later.getId()));
+        assertNull(cacheManager.getCache("coupon").get(started.getId()));
+    }
+
+    private Coupon saveCoupon(LocalDateTime dateIssueStart) {
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .userShardCount(4)
+                .issuedQuantity(0)
+                .dateIssueStart(dateIssueStart)
+                .dateIssueEnd(dateIssueStart.plusDays(1))
+                .build();
+        return couponJpaRepository.save(coupon);
+    }
+
+    private CouponIssuePrewarmer prewarmer(Duration lookahead) {
+        return new CouponIssuePrewarmer(couponJpaRepository, couponCacheService, couponRedisRepository,
+                couponQuantityLeaseRepository, couponQuantityLeaseManager, couponIssueBloomFilter, true, lookahead);
+    }
+}
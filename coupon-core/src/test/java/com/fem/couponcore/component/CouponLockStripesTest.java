@@ -0,0 +1,59 @@
+package com.fem.couponcore.component;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponLockStripesTest {
+
+    @Test
+    @DisplayName("lock 개수는 2의 제곱수로 맞춰진다.")
+    void size_1() {
+        assertEquals(1, new CouponLockStripes(1).size());
+        assertEquals(256, new CouponLockStripes(256).size());
+        assertEquals(512, new CouponLockStripes(300).size());
+    }
+
+    @Test
+    @DisplayName("같은 쿠폰은 항상 같은 lock 을 사용한다.")
+    void getLock_1() {
+        // given
+        CouponLockStripes sut = new CouponLockStripes(16);
+
+        // when, then
+        assertSame(sut.getLock(1L), sut.getLock(1L));
+    }
+
+    @Test
+    @DisplayName("같은 쿠폰에 대한 요청은 동시에 실행되지 않는다.")
+    void execute_1() throws InterruptedException {
+        // given
+        CouponLockStripes sut = new CouponLockStripes(16);
+        int requestCount = 1000;
+        int[] counter = new int[1];
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executor.submit(() -> {
+                try {
+                    sut.execute(1L, () -> counter[0]++);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertEquals(requestCount, counter[0]);
+    }
+}
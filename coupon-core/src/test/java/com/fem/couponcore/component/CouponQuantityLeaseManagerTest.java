@@ -0,0 +1,106 @@
+package com.fem.couponcore.component;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.repository.redis.CouponQuantityLeaseRepository;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueLeaseRemainingKey;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponQuantityLeaseManagerTest extends TestConfig {
+
+    @Autowired CouponQuantityLeaseRepository couponQuantityLeaseRepository;
+    @Autowired CouponRedisRepository couponRedisRepository;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("수량 lease - 여러 노드가 lease 를 받아도 발급 수량의 합은 최대 발급 수량을 넘지 않는다.")
+    void acquire_1() {
+        // given
+        Long couponId = 1L;
+        int totalQuantity = 5;
+        CouponQuantityLeaseManager first = leaseManager(2, Duration.ofMinutes(1));
+        CouponQuantityLeaseManager second = leaseManager(2, Duration.ofMinutes(1));
+
+        // when
+        long acquired = IntStream.range(0, 10)
+                .mapToObj(idx -> (idx % 2 == 0 ? first : second).acquire(couponId, totalQuantity))
+                .filter(leaseId -> leaseId != null)
+                .count();
+
+        // then
+        assertEquals(totalQuantity, acquired);
+        assertEquals("0", redisTemplate.opsForValue().get(getIssueLeaseRemainingKey(couponId)));
+    }
+
+    @Test
+    @DisplayName("수량 lease - 이미 발급 요청된 수량을 제외하고 lease 한다.")
+    void acquire_2() {
+        // given
+        Long couponId = 1L;
+        int totalQuantity = 3;
+        IntStream.range(0, 2).forEach(userId ->
+                redisTemplate.opsForSet().add(getIssueRequestKey(couponId), String.valueOf(userId)));
+        CouponQuantityLeaseManager sut = leaseManager(10, Duration.ofMinutes(1));
+
+        // when
+        String leaseId = sut.acquire(couponId, totalQuantity);
+
+        // then
+        assertNotNull(leaseId);
+        assertNull(sut.acquire(couponId, totalQuantity));
+    }
+
+    @Test
+    @DisplayName("수량 lease - 노드가 종료되면 사용하지 않은 수량을 남은 수량으로 되돌린다.")
+    void releaseAll_1() {
+        // given
+        Long couponId = 1L;
+        CouponQuantityLeaseManager sut = leaseManager(10, Duration.ofMinutes(1));
+        sut.acquire(couponId, 100);
+
+        // when
+        sut.releaseAll();
+
+        // then
+        assertEquals("100", redisTemplate.opsForValue().get(getIssueLeaseRemainingKey(couponId)));
+    }
+
+    @Test
+    @DisplayName("수량 lease - 만료된 lease 는 회수되어 남은 수량으로 되돌아간다.")
+    void reclaimExpiredLeases_1() {
+        // given
+        Long couponId = 1L;
+        CouponQuantityLeaseManager sut = leaseManager(10, Duration.ZERO);
+        couponQuantityLeaseRepository.acquire(couponId, "expired-lease", 100, 10, System.currentTimeMillis() - 1000);
+
+        // when
+        sut.reclaimExpiredLeases();
+
+        // then
+        assertEquals("100", redisTemplate.opsForValue().get(getIssueLeaseRemainingKey(couponId)));
+    }
+
+    private CouponQuantityLeaseManager leaseManager(int chunkSize, Duration reclaimGrace) {
+        return new CouponQuantityLeaseManager(couponQuantityLeaseRepository, couponRedisRepository, new CouponLockStripes(16),
+                true, chunkSize, Duration.ofMinutes(1), reclaimGrace, Duration.ZERO);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fem.couponcore.repository.redis;
+
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponIssueRequestCodecTest {
+
+    @Test
+    @DisplayName("binary 형식으로 직렬화한 발급 요청은 고정 길이이며 그대로 복원된다.")
+    void encode_1() {
+        // given
+        CouponIssueRequestCodec sut = new CouponIssueRequestCodec("binary");
+        CouponIssueRequest request = CouponIssueRequest.of(1L, 1000L);
+
+        // when
+        byte[] value = sut.encode(request);
+
+        // then
+        assertEquals(CouponIssueRequestCodec.VERSION_1_LENGTH, value.length);
+        assertEquals(request, sut.decode(value));
+    }
+
+    @Test
+    @DisplayName("json 형식으로 적재된 이전 발급 요청도 읽을 수 있다.")
+    void decode_1() {
+        // given
+        CouponIssueRequestCodec sut = new CouponIssueRequestCodec("binary");
+        byte[] value = "{\"couponId\":1,\"userId\":1000}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        CouponIssueRequest result = sut.decode(value);
+
+        // then
+        assertEquals(1L, result.couponId());
+        assertEquals(1000L, result.userId());
+    }
+
+    @Test
+    @DisplayName("json 형식으로 설정하면 json 으로 직렬화한다.")
+    void encode_2() {
+        // given
+        CouponIssueRequestCodec sut = new CouponIssueRequestCodec("json");
+        CouponIssueRequest request = CouponIssueRequest.of(1L, 1000L);
+
+        // when
+        byte[] value = sut.encode(request);
+
+        // then
+        assertEquals('{', value[0]);
+        assertEquals(request, sut.decode(value));
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 형식이면 예외를 반환한다.")
+    void decode_2() {
+        // given
+        CouponIssueRequestCodec sut = new CouponIssueRequestCodec("binary");
+
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> sut.decode(new byte[]{9, 1, 2}));
+    }
+}
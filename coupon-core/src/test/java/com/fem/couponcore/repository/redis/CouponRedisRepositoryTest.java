@@ -0,0 +1,72 @@
+package com.fem.couponcore.repository.redis;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import com.fem.couponcore.repository.redis.dto.CouponIssueScriptRequest;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Set;
+
+import static com.fem.couponcore.util.CouponRedisUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponRedisRepositoryTest extends TestConfig {
+
+    @Autowired CouponRedisRepository sut;
+    @Autowired CouponQuantityLeaseRepository couponQuantityLeaseRepository;
+    @Autowired CouponIssueRequestCodec couponIssueRequestCodec;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("발급 요청 스크립트 - 유효한 lease 로 요청하면 발급 요청을 적재하고 lease 의 사용 수량을 기록한다.")
+    void issueRequest_1() {
+        // given
+        Long couponId = 1L;
+        couponQuantityLeaseRepository.acquire(couponId, "lease", 10, 5, System.currentTimeMillis() + 60_000);
+
+        // when
+        CouponIssueRequestCode code = sut.issueRequest(leasedScriptRequest(couponId, 100L, "lease"));
+
+        // then
+        assertEquals(CouponIssueRequestCode.SUCCESS, code);
+        assertTrue(redisTemplate.opsForSet().isMember(getIssueRequestKey(couponId), "100"));
+        assertEquals(1L, redisTemplate.opsForList().size(getIssueRequestQueueKey(couponId)));
+        assertEquals("1", redisTemplate.opsForHash().get(getIssueLeaseKey(couponId), "lease:used"));
+    }
+
+    @Test
+    @DisplayName("발급 요청 스크립트 - 반납된 lease 로 요청하면 발급 요청을 적재하지 않고 lease 만료를 반환한다.")
+    void issueRequest_2() {
+        // given
+        Long couponId = 1L;
+        couponQuantityLeaseRepository.acquire(couponId, "lease", 10, 5, System.currentTimeMillis() + 60_000);
+        couponQuantityLeaseRepository.release(couponId, "lease");
+
+        // when
+        CouponIssueRequestCode code = sut.issueRequest(leasedScriptRequest(couponId, 100L, "lease"));
+
+        // then
+        assertEquals(CouponIssueRequestCode.LEASE_EXPIRED, code);
+        assertFalse(redisTemplate.opsForSet().isMember(getIssueRequestKey(couponId), "100"));
+        assertEquals(0L, redisTemplate.opsForList().size(getIssueRequestQueueKey(couponId)));
+    }
+
+    private CouponIssueScriptRequest leasedScriptRequest(Long couponId, Long userId, String leaseId) {
+        byte[] value = couponIssueRequestCodec.encode(CouponIssueRequest.of(couponId, userId));
+        return new CouponIssueScriptRequest(getIssueRequestKey(couponId), getIssueRequestQueueKey(couponId),
+                CouponIssueQueueType.LIST, userId, value, null, getIssueLeaseKey(couponId), leaseId);
+    }
+}
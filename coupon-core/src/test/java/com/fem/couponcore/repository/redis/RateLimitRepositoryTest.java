@@ -0,0 +1,85 @@
+package com.fem.couponcore.repository.redis;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.repository.redis.RateLimitRepository.Bucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitRepositoryTest extends TestConfig {
+
+    @Autowired RateLimitRepository sut;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("요청 제한 - 최대 token 수 만큼 요청한 뒤에는 token 이 충전될 때까지 거절한다.")
+    void tryAcquire_1() {
+        // given
+        long now = 1_000_000L;
+        List<Bucket> buckets = List.of(new Bucket("rate:user", 2, 1));
+
+        // when
+        List<Long> first = sut.tryAcquire(buckets, now);
+        List<Long> second = sut.tryAcquire(buckets, now);
+        List<Long> rejected = sut.tryAcquire(buckets, now);
+        List<Long> refilled = sut.tryAcquire(buckets, now + 1000);
+
+        // then
+        assertEquals(-1L, first.get(0));
+        assertEquals(-1L, second.get(0));
+        assertEquals(1L, rejected.get(0));
+        assertEquals(1000L, rejected.get(1));
+        assertEquals(-1L, refilled.get(0));
+    }
+
+    @Test
+    @DisplayName("요청 제한 - 하나의 bucket 이라도 거절되면 다른 bucket 의 token 도 차감하지 않는다.")
+    void tryAcquire_2() {
+        // given
+        long now = 1_000_000L;
+        Bucket user = new Bucket("rate:user", 1, 1);
+        Bucket client = new Bucket("rate:client", 10, 1);
+        sut.tryAcquire(List.of(user), now);
+
+        // when
+        List<Long> result = sut.tryAcquire(List.of(client, user), now);
+
+        // then
+        assertEquals(2L, result.get(0));
+        assertNull(redisTemplate.opsForHash().get("rate:client", "tokens"));
+    }
+
+    @Test
+    @DisplayName("요청 제한 - 차감할 token 수가 남은 token 보다 많으면 모자란 token 이 충전될 때까지 거절한다.")
+    void tryAcquire_3() {
+        // given
+        long now = 1_000_000L;
+        List<Bucket> buckets = List.of(new Bucket("rate:client", 5, 1, 3));
+
+        // when
+        List<Long> first = sut.tryAcquire(buckets, now);
+        List<Long> rejected = sut.tryAcquire(buckets, now);
+        List<Long> refilled = sut.tryAcquire(buckets, now + 1000);
+
+        // then
+        assertEquals(-1L, first.get(0));
+        assertEquals(1L, rejected.get(0));
+        assertEquals(1000L, rejected.get(1));
+        assertEquals(-1L, refilled.get(0));
+    }
+}
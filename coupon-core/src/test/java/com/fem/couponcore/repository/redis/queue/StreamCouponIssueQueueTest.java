@@ -0,0 +1,74 @@
+package com.fem.couponcore.repository.redis.queue;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamCouponIssueQueueTest extends TestConfig {
+
+    @Autowired CouponRedisRepository couponRedisRepository;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+    @Autowired RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("stream 큐에 적재한 요청을 consumer group 으로 읽고 ack 하면 stream 에서 제거된다.")
+    void poll_1() {
+        // given
+        StreamCouponIssueQueue sut = queue("consumer-1", Duration.ofMinutes(1));
+        Long couponId = 1L;
+        sut.push(couponId, new byte[]{1});
+        sut.push(couponId, new byte[]{2});
+
+        // when
+        List<CouponIssueQueueMessage> messages = sut.poll(sut.getQueueKey(couponId), 10);
+        sut.ack(sut.getQueueKey(couponId), messages);
+
+        // then
+        assertEquals(2, messages.size());
+        assertArrayEquals(new byte[]{1}, messages.get(0).value());
+        assertArrayEquals(new byte[]{2}, messages.get(1).value());
+        assertEquals(0L, byteArrayRedisTemplate.opsForStream().size(sut.getQueueKey(couponId)));
+        assertTrue(sut.poll(sut.getQueueKey(couponId), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("ack 되지 않은 요청은 다른 consumer 가 회수해 다시 처리한다.")
+    void poll_2() {
+        // given
+        StreamCouponIssueQueue first = queue("consumer-1", Duration.ZERO);
+        StreamCouponIssueQueue second = queue("consumer-2", Duration.ZERO);
+        Long couponId = 1L;
+        first.push(couponId, new byte[]{1});
+        first.poll(first.getQueueKey(couponId), 10);
+
+        // when
+        List<CouponIssueQueueMessage> messages = second.poll(second.getQueueKey(couponId), 10);
+
+        // then
+        assertEquals(1, messages.size());
+        assertArrayEquals(new byte[]{1}, messages.get(0).value());
+    }
+
+    private StreamCouponIssueQueue queue(String consumerName, Duration claimMinIdleTime) {
+        return new StreamCouponIssueQueue(couponRedisRepository, byteArrayRedisTemplate,
+                "coupon-consumer", consumerName, claimMinIdleTime);
+    }
+}
@@ -1,12 +1,11 @@
 package com.fem.couponcore.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fem.couponcore.TestConfig;
 import com.fem.couponcore.exception.CouponIssueException;
 import com.fem.couponcore.model.Coupon;
 import com.fem.couponcore.model.CouponType;
 import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
 import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +27,8 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
     @Autowired AsyncCouponIssueServiceV1 sut;
     @Autowired RedisTemplate<String, String> redisTemplate;
     @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+    @Autowired CouponIssueRequestCodec couponIssueRequestCodec;
 
 
     @BeforeEach
@@ -137,7 +138,7 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
 
     @Test
     @DisplayName("쿠폰 발급 - 쿠폰 발급 요청이 성공하면 쿠폰 발급 큐에 적재된다.")
-    void issue_6() throws JsonProcessingException {
+    void issue_6() {
         // given
         Long userId = 1000L;
         Coupon coupon = Coupon.builder()
@@ -149,14 +150,14 @@ class AsyncCouponIssueServiceV1Test extends TestConfig {
                 .dateIssueEnd(LocalDateTime.now().plusDays(1))
                 .build();
         couponJpaRepository.save(coupon);
-        ObjectMapper objectMapper = new ObjectMapper();
-        String request = objectMapper.writeValueAsString(new CouponIssueRequest(coupon.getId(), userId));
 
         // when
         sut.issue(coupon.getId(), userId);
 
         // then
-        String result = redisTemplate.opsForList().leftPop(getIssueRequestQueueKey(coupon.getId()));
-        assertEquals(request, result);
+        byte[] value = byteArrayRedisTemplate.opsForList().leftPop(getIssueRequestQueueKey(coupon.getId()));
+        CouponIssueRequest result = couponIssueRequestCodec.decode(value);
+        assertEquals(coupon.getId(), result.couponId());
+        assertEquals(userId, result.userId());
     }
 }
\ No newline at end of file
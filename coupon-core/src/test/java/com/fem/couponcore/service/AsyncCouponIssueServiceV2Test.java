@@ -0,0 +1,249 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import com.fem.couponcore.service.dto.CouponIssueResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.fem.couponcore.exception.ErrorCode.*;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestQueueKey;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncCouponIssueServiceV2Test extends TestConfig {
+
+    @Autowired AsyncCouponIssueServiceV2 sut;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired RedisTemplate<String, byte[]> byteArrayRedisTemplate;
+    @Autowired CouponIssueRequestCodec couponIssueRequestCodec;
+
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 쿠폰이 존재하지 않는다면 예외를 반환한다.")
+    void issue_1() {
+        // given
+        Long couponId = 1L;
+        Long userId = 1L;
+        // when, then
+        CouponIssueException ex = assertThrows(CouponIssueException.class, () -> sut.issue(couponId, userId));
+        assertEquals(COUPON_NOT_EXIST, ex.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 발급 가능 수량이 존재하지 않는다면 예외를 반환한다.")
+    void issue_2() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        IntStream.range(0, coupon.getTotalQuantity()).forEach(idx ->
+            redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(idx))
+        );
+        // when, then
+        CouponIssueException ex = assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
+        assertEquals(INVALID_COUPON_ISSUE_QUANTITY, ex.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 이미 발급된 유저라면 예외를 반환한다.")
+    void issue_3() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(userId));
+
+        // when, then
+        CouponIssueException ex = assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
+        assertEquals(DUPLICATED_COUPON_ISSUE, ex.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 발급 기간이 유효하지 않다면 예외를 반환한다.")
+    void issue_4() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(2))
+                .dateIssueEnd(LocalDateTime.now().minusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when, then
+        CouponIssueException ex = assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
+        assertEquals(INVALID_COUPON_ISSUE_DATE, ex.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 쿠폰 발급을 기록한다.")
+    void issue_5() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when
+        sut.issue(coupon.getId(), userId);
+
+        // then
+        Boolean result = redisTemplate.opsForSet().isMember(getIssueRequestKey(coupon.getId()), userId.toString());
+        assertTrue(result);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 쿠폰 발급 요청이 성공하면 쿠폰 발급 큐에 적재된다.")
+    void issue_6() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when
+        sut.issue(coupon.getId(), userId);
+
+        // then
+        byte[] value = byteArrayRedisTemplate.opsForList().leftPop(getIssueRequestQueueKey(coupon.getId()));
+        CouponIssueRequest result = couponIssueRequestCodec.decode(value);
+        assertEquals(coupon.getId(), result.couponId());
+        assertEquals(userId, result.userId());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 최대 발급 수량이 설정되지 않았다면 수량 제한 없이 발급 요청을 기록한다.")
+    void issue_7() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(null)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when
+        sut.issue(coupon.getId(), userId);
+
+        // then
+        Boolean result = redisTemplate.opsForSet().isMember(getIssueRequestKey(coupon.getId()), userId.toString());
+        assertTrue(result);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 - 수량이 소진된 쿠폰은 이후 redis 조회 없이 예외를 반환한다.")
+    void issue_8() {
+        // given
+        Long userId = 1000L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        IntStream.range(0, coupon.getTotalQuantity()).forEach(idx ->
+                redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), String.valueOf(idx))
+        );
+        assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
+        redisTemplate.delete(getIssueRequestKey(coupon.getId()));
+
+        // when, then
+        CouponIssueException ex = assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), userId));
+        assertEquals(INVALID_COUPON_ISSUE_QUANTITY, ex.getErrorCode());
+        assertFalse(redisTemplate.opsForSet().isMember(getIssueRequestKey(coupon.getId()), userId.toString()));
+    }
+
+    @Test
+    @DisplayName("쿠폰 일괄 발급 - 요청 순서대로 요청별 발급 결과를 반환한다.")
+    void issueAll_1() {
+        // given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(2)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        Long notExistCouponId = coupon.getId() + 1000;
+        List<CouponIssueRequest> requests = List.of(
+                new CouponIssueRequest(coupon.getId(), 1L),
+                new CouponIssueRequest(notExistCouponId, 1L),
+                new CouponIssueRequest(coupon.getId(), 1L),
+                new CouponIssueRequest(coupon.getId(), 2L),
+                new CouponIssueRequest(coupon.getId(), 3L)
+        );
+
+        // when
+        List<CouponIssueResult> results = sut.issueAll(requests);
+
+        // then
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(COUPON_NOT_EXIST, results.get(1).errorCode());
+        assertEquals(DUPLICATED_COUPON_ISSUE, results.get(2).errorCode());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals(INVALID_COUPON_ISSUE_QUANTITY, results.get(4).errorCode());
+        assertEquals(2L, redisTemplate.opsForList().size(getIssueRequestQueueKey(coupon.getId())));
+    }
+}
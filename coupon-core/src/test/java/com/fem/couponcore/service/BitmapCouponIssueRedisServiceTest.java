@@ -0,0 +1,110 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCode;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static com.fem.couponcore.util.CouponRedisUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "coupon.tracking.type=bitmap")
+class BitmapCouponIssueRedisServiceTest extends TestConfig {
+
+    @Autowired CouponIssueRedisService sut;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("bitmap 발급 요청 - 사용자는 userId 위치의 bit 로 기록되고 발급 수량 counter 가 증가한다.")
+    void issueBitmapRequest_1() {
+        // given
+        CouponRedisEntity coupon = coupon(10);
+        Long userId = 1_000_000L;
+
+        // when
+        CouponIssueRequestCode result = sut.issueBitmapRequest(coupon, userId, new byte[]{1});
+
+        // then
+        assertEquals(CouponIssueRequestCode.SUCCESS, result);
+        assertTrue(redisTemplate.opsForValue().getBit(getIssueRequestBitmapKey(coupon.id()), userId));
+        assertEquals("1", redisTemplate.opsForValue().get(getIssueRequestCountKey(coupon.id())));
+        assertFalse(sut.availableUserIssueQuantity(coupon, userId));
+        assertFalse(redisTemplate.hasKey(getIssueRequestKey(coupon.id())));
+    }
+
+    @Test
+    @DisplayName("bitmap 발급 요청 - 이미 요청한 사용자와 발급 수량을 초과한 요청은 기록하지 않는다.")
+    void issueBitmapRequest_2() {
+        // given
+        int totalQuantity = 3;
+        CouponRedisEntity coupon = coupon(totalQuantity);
+        LongStream.range(0, totalQuantity).forEach(userId -> sut.issueBitmapRequest(coupon, userId, new byte[]{1}));
+
+        // when
+        CouponIssueRequestCode duplicated = sut.issueBitmapRequest(coupon, 0L, new byte[]{1});
+        CouponIssueRequestCode exceeded = sut.issueBitmapRequest(coupon, 100L, new byte[]{1});
+
+        // then
+        assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, duplicated);
+        assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, exceeded);
+        assertTrue(sut.availableUserIssueQuantity(coupon, 100L));
+        assertFalse(sut.availableTotalIssueQuantity(coupon));
+    }
+
+    @Test
+    @DisplayName("bitmap 발급 요청 - bitmap 에 기록할 수 없는 userId 는 예외를 반환한다.")
+    void issueBitmapRequest_3() {
+        // given
+        CouponRedisEntity coupon = coupon(10);
+
+        // when
+        CouponIssueException exception = assertThrows(CouponIssueException.class,
+                () -> sut.issueBitmapRequest(coupon, -1L, new byte[]{1}));
+
+        // then
+        assertEquals(FAIL_COUPON_ISSUE_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("bitmap 발급 요청 - 최대 userId 를 넘는 userId 는 bitmap 을 늘리지 않고 예외를 반환한다.")
+    void issueBitmapRequest_4() {
+        // given
+        CouponRedisEntity coupon = coupon(10);
+        Long userId = 10_000_001L;
+
+        // when
+        CouponIssueException exception = assertThrows(CouponIssueException.class,
+                () -> sut.issueBitmapRequest(coupon, userId, new byte[]{1}));
+
+        // then
+        assertEquals(FAIL_COUPON_ISSUE_REQUEST, exception.getErrorCode());
+        assertFalse(redisTemplate.hasKey(getIssueRequestBitmapKey(coupon.id())));
+        assertEquals(false, sut.findRequested(coupon, List.of(userId)).get(0));
+    }
+
+    private CouponRedisEntity coupon(int totalQuantity) {
+        return new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, totalQuantity, null,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+    }
+}
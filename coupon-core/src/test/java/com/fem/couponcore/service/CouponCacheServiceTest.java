@@ -0,0 +1,98 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.component.CouponSoldOutRegistry;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCacheServiceTest extends TestConfig {
+
+    @Autowired CouponCacheService sut;
+    @Autowired CacheManager cacheManager;
+    @Autowired CouponSoldOutRegistry couponSoldOutRegistry;
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 캐시 - 로컬 캐시에 저장된 쿠폰은 redis 캐시가 없어도 조회된다.")
+    void getCouponCache_1() {
+        // given
+        Coupon coupon = saveCoupon();
+        sut.getCouponCache(coupon.getId());
+        clear();
+
+        // when
+        Cache.ValueWrapper result = cacheManager.getCache("coupon").get(coupon.getId());
+
+        // then
+        assertNotNull(result);
+        assertEquals(coupon.getId(), ((CouponRedisEntity) result.get()).id());
+    }
+
+    @Test
+    @DisplayName("쿠폰 캐시 - 캐시를 갱신하면 데이터베이스의 변경된 쿠폰 정보가 조회된다.")
+    void refreshCouponCache_1() {
+        // given
+        Coupon coupon = saveCoupon();
+        CouponRedisEntity stale = new CouponRedisEntity(coupon.getId(), coupon.getCouponType(), 1, null,
+                coupon.getDateIssueStart(), coupon.getDateIssueEnd());
+        cacheManager.getCache("coupon").put(coupon.getId(), stale);
+
+        // when
+        sut.refreshCouponCache(coupon.getId());
+
+        // then
+        assertEquals(10, sut.getCouponCache(coupon.getId()).totalQuantity());
+    }
+
+    @Test
+    @DisplayName("쿠폰 캐시 - 캐시를 갱신할 때 최대 발급 수량이 바뀌었으면 소진 기록을 제거한다.")
+    void refreshCouponCache_2() {
+        // given
+        Coupon coupon = saveCoupon();
+        CouponRedisEntity soldOut = new CouponRedisEntity(coupon.getId(), coupon.getCouponType(), 1, null,
+                coupon.getDateIssueStart(), coupon.getDateIssueEnd());
+        cacheManager.getCache("coupon").put(coupon.getId(), soldOut);
+        couponSoldOutRegistry.markSoldOut(coupon.getId());
+
+        // when
+        sut.refreshCouponCache(coupon.getId());
+
+        // then
+        assertFalse(couponSoldOutRegistry.isSoldOut(coupon.getId()));
+    }
+
+    private Coupon saveCoupon() {
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(10)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        return couponJpaRepository.save(coupon);
+    }
+}
@@ -1,22 +1,29 @@
 package com.fem.couponcore.service;
 
 import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCode;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
-import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static com.fem.couponcore.util.CouponRedisUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class CouponIssueRedisServiceTest extends TestConfig {
 
     @Autowired private CouponIssueRedisService sut;
     @Autowired private RedisTemplate<String, String> redisTemplate;
+    @Autowired private CouponIssueQueue couponIssueQueue;
 
     @BeforeEach
     void clear() {
@@ -85,4 +92,64 @@ class CouponIssueRedisServiceTest extends TestConfig {
         // then
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("분할 발급 요청 - 사용자는 분할된 set 에 기록되고 발급 수량 counter 가 증가하며 발급 큐에 적재된다.")
+    void issueShardedRequest_1() {
+        // given
+        CouponRedisEntity coupon = shardedCoupon(10, 4);
+        Long userId = 7L;
+
+        // when
+        CouponIssueRequestCode result = sut.issueShardedRequest(coupon, userId, new byte[]{1});
+
+        // then
+        assertEquals(CouponIssueRequestCode.SUCCESS, result);
+        assertEquals("1", redisTemplate.opsForValue().get(getIssueRequestCountKey(coupon.id())));
+        assertTrue(redisTemplate.opsForSet().isMember(getIssueRequestShardKey(coupon.id(), userId, 4), userId.toString()));
+        assertFalse(sut.availableUserIssueQuantity(coupon, userId));
+        assertEquals(1, couponIssueQueue.size(couponIssueQueue.getQueueKey(coupon.id())));
+    }
+
+    @Test
+    @DisplayName("분할 발급 요청 - 이미 요청한 사용자는 중복 발급 코드를 반환하고 수량은 증가하지 않는다.")
+    void issueShardedRequest_2() {
+        // given
+        CouponRedisEntity coupon = shardedCoupon(10, 4);
+        Long userId = 7L;
+        sut.issueShardedRequest(coupon, userId, new byte[]{1});
+
+        // when
+        CouponIssueRequestCode result = sut.issueShardedRequest(coupon, userId, new byte[]{1});
+
+        // then
+        assertEquals(CouponIssueRequestCode.DUPLICATED_COUPON_ISSUE, result);
+        assertEquals("1", redisTemplate.opsForValue().get(getIssueRequestCountKey(coupon.id())));
+    }
+
+    @Test
+    @DisplayName("분할 발급 요청 - 발급 수량을 초과하면 사용자를 기록하지 않고 수량 초과 코드를 반환한다.")
+    void issueShardedRequest_3() {
+        // given
+        int totalQuantity = 10;
+        CouponRedisEntity coupon = shardedCoupon(totalQuantity, 4);
+        LongStream.range(0, totalQuantity).forEach(userId ->
+                sut.issueShardedRequest(coupon, userId, new byte[]{1}));
+        Long userId = 100L;
+
+        // when
+        CouponIssueRequestCode result = sut.issueShardedRequest(coupon, userId, new byte[]{1});
+
+        // then
+        assertEquals(CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY, result);
+        assertEquals(String.valueOf(totalQuantity), redisTemplate.opsForValue().get(getIssueRequestCountKey(coupon.id())));
+        assertTrue(sut.availableUserIssueQuantity(coupon, userId));
+        assertFalse(sut.availableTotalIssueQuantity(coupon));
+        assertEquals(totalQuantity, couponIssueQueue.size(couponIssueQueue.getQueueKey(coupon.id())));
+    }
+
+    private CouponRedisEntity shardedCoupon(int totalQuantity, int userShardCount) {
+        return new CouponRedisEntity(1L, CouponType.FIRST_COME_FIRST_SERVED, totalQuantity, userShardCount,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+    }
+}
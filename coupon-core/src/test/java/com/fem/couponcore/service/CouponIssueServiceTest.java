@@ -8,14 +8,22 @@ import com.fem.couponcore.model.CouponIssue;
 import com.fem.couponcore.model.CouponType;
 import com.fem.couponcore.repository.mysql.CouponIssueJpaRepository;
 import com.fem.couponcore.repository.mysql.CouponIssueRepository;
+import com.fem.couponcore.repository.mysql.CouponIssuedQuantityDeltaJpaRepository;
 import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.service.dto.UserCoupon;
+import com.fem.couponcore.service.dto.UserCouponPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.fem.couponcore.exception.ErrorCode.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,11 +34,13 @@ class CouponIssueServiceTest extends TestConfig {
     @Autowired private CouponJpaRepository couponJpaRepository;
     @Autowired private CouponIssueJpaRepository couponIssueJpaRepository;
     @Autowired private CouponIssueRepository couponIssueRepository;
+    @Autowired private CouponIssuedQuantityDeltaJpaRepository couponIssuedQuantityDeltaJpaRepository;
 
     @BeforeEach
     void clean() {
         couponJpaRepository.deleteAllInBatch();
         couponIssueJpaRepository.deleteAllInBatch();
+        couponIssuedQuantityDeltaJpaRepository.deleteAllInBatch();
     }
 
     @Test
@@ -164,4 +174,229 @@ class CouponIssueServiceTest extends TestConfig {
         CouponIssueException couponIssueException = assertThrows(CouponIssueException.class, () -> sut.issue(couponId, userId));
         assertEquals(couponIssueException.getErrorCode(), COUPON_NOT_EXIST);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("발급 요청을 한 번에 저장하고 같은 발급 요청이 다시 전달되어도 발급 내역은 한 번만 저장된다.")
+    void saveCouponIssues_1() {
+        // given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        int first = sut.saveCouponIssues(coupon.getId(), List.of(1L, 2L));
+
+        // when
+        int second = sut.saveCouponIssues(coupon.getId(), List.of(1L, 2L, 3L, 3L));
+
+        // then
+        assertEquals(first, 2);
+        assertEquals(second, 1);
+        assertEquals(couponIssueJpaRepository.findAll().size(), 3);
+    }
+
+    @Test
+    @DisplayName("조건부 update 발급 - 발급 내역을 저장하고 발급 수량을 증가시킨다.")
+    void issueWithConditionalUpdate_1() {
+        // given
+        Long userId = 1L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when
+        sut.issueWithConditionalUpdate(coupon.getId(), userId);
+
+        // then
+        Coupon couponResult = couponJpaRepository.findById(coupon.getId()).get();
+        assertEquals(couponResult.getIssuedQuantity(), 1);
+        assertTrue(couponIssueRepository.findFirstCouponIssue(coupon.getId(), userId).isPresent());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("조건부 update 발급 - 발급 수량이 모두 소진되었다면 예외를 반환하고 발급 내역은 저장되지 않는다.")
+    void issueWithConditionalUpdate_2() {
+        // given
+        Long userId = 1L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(100)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when, then
+        CouponIssueException couponIssueException = assertThrows(CouponIssueException.class,
+                () -> sut.issueWithConditionalUpdate(coupon.getId(), userId));
+        assertEquals(couponIssueException.getErrorCode(), INVALID_COUPON_ISSUE_QUANTITY);
+        assertTrue(couponIssueRepository.findFirstCouponIssue(coupon.getId(), userId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("조건부 update 발급 - 발급 기한이 아니라면 예외를 반환한다.")
+    void issueWithConditionalUpdate_3() {
+        // given
+        Long userId = 1L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(2))
+                .dateIssueEnd(LocalDateTime.now().minusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+
+        // when, then
+        CouponIssueException couponIssueException = assertThrows(CouponIssueException.class,
+                () -> sut.issueWithConditionalUpdate(coupon.getId(), userId));
+        assertEquals(couponIssueException.getErrorCode(), INVALID_COUPON_ISSUE_DATE);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("조건부 update 발급 - 이미 발급된 사용자라면 예외를 반환하고 발급 수량은 증가하지 않는다.")
+    void issueWithConditionalUpdate_4() {
+        // given
+        Long userId = 1L;
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        sut.issueWithConditionalUpdate(coupon.getId(), userId);
+
+        // when, then
+        CouponIssueException couponIssueException = assertThrows(CouponIssueException.class,
+                () -> sut.issueWithConditionalUpdate(coupon.getId(), userId));
+        assertEquals(couponIssueException.getErrorCode(), DUPLICATED_COUPON_ISSUE);
+        assertEquals(couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity(), 1);
+    }
+
+    @Test
+    @DisplayName("발급 수량 반영 - 저장된 발급 내역 수 만큼 발급 수량을 증가시키고 여러 번 반영해도 한 번만 더한다.")
+    void flushIssuedQuantity_1() {
+        // given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        sut.saveCouponIssues(coupon.getId(), List.of(1L, 2L));
+        sut.saveCouponIssues(coupon.getId(), List.of(2L, 3L));
+
+        // when
+        int flushed = sut.flushIssuedQuantity(100);
+        int flushedAgain = sut.flushIssuedQuantity(100);
+
+        // then
+        assertEquals(flushed, 2);
+        assertEquals(flushedAgain, 0);
+        assertEquals(couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity(), 3);
+    }
+
+    @Test
+    @DisplayName("발급 수량 반영 - 같은 발급 요청이 다시 저장되어도 발급 수량은 증가하지 않는다.")
+    void flushIssuedQuantity_2() {
+        // given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        sut.saveCouponIssues(coupon.getId(), List.of(1L, 2L));
+        sut.flushIssuedQuantity(100);
+
+        // when
+        sut.saveCouponIssues(coupon.getId(), List.of(1L, 2L));
+        sut.flushIssuedQuantity(100);
+
+        // then
+        assertEquals(couponJpaRepository.findById(coupon.getId()).get().getIssuedQuantity(), 2);
+    }
+
+    @Test
+    @DisplayName("사용자 쿠폰 조회 - cursor 를 이용하여 최근 발급 순서로 끝까지 조회한다.")
+    void findUserCoupons_1() {
+        // given
+        Long userId = 1L;
+        List<Long> couponIds = IntStream.range(0, 5)
+                .mapToObj(idx -> saveUserCouponIssue(userId, null))
+                .toList();
+
+        // when
+        UserCouponPage first = sut.findUserCoupons(userId, null, null, 2);
+        UserCouponPage second = sut.findUserCoupons(userId, null, first.nextCursor(), 2);
+        UserCouponPage last = sut.findUserCoupons(userId, null, second.nextCursor(), 2);
+
+        // then
+        List<Long> result = Stream.of(first, second, last)
+                .flatMap(page -> page.coupons().stream())
+                .map(UserCoupon::couponId)
+                .toList();
+        assertEquals(couponIds.reversed(), result);
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    @DisplayName("사용자 쿠폰 조회 - 사용 여부로 발급 쿠폰을 나누어 조회한다.")
+    void findUserCoupons_2() {
+        // given
+        Long userId = 1L;
+        Long usedCouponId = saveUserCouponIssue(userId, LocalDateTime.now());
+        Long unusedCouponId = saveUserCouponIssue(userId, null);
+        saveUserCouponIssue(2L, null);
+
+        // when
+        UserCouponPage used = sut.findUserCoupons(userId, true, null, 20);
+        UserCouponPage unused = sut.findUserCoupons(userId, false, null, 20);
+
+        // then
+        assertEquals(List.of(usedCouponId), used.coupons().stream().map(UserCoupon::couponId).toList());
+        assertEquals(List.of(unusedCouponId), unused.coupons().stream().map(UserCoupon::couponId).toList());
+    }
+
+    private Long saveUserCouponIssue(Long userId, LocalDateTime dateUsed) {
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(1)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        couponIssueJpaRepository.save(CouponIssue.builder()
+                .couponId(coupon.getId())
+                .userId(userId)
+                .dateUsed(dateUsed)
+                .build());
+        return coupon.getId();
+    }
+}
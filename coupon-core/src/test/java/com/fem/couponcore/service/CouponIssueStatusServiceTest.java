@@ -0,0 +1,101 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.CouponIssueStatusRepository;
+import com.fem.couponcore.service.dto.CouponIssueStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
+import static com.fem.couponcore.service.dto.CouponIssueStatus.Status.*;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponIssueStatusServiceTest extends TestConfig {
+
+    @Autowired CouponIssueStatusService sut;
+    @Autowired CouponIssueStatusRepository couponIssueStatusRepository;
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("발급 상태 조회 - 발급 요청만 기록된 사용자는 QUEUED, 요청하지 않은 사용자는 NOT_REQUESTED 이다.")
+    void getStatus_1() {
+        // given
+        Coupon coupon = saveCoupon();
+        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), "1");
+
+        // when
+        CouponIssueStatus queued = sut.getStatus(coupon.getId(), 1L);
+        CouponIssueStatus notRequested = sut.getStatus(coupon.getId(), 2L);
+
+        // then
+        assertEquals(QUEUED, queued.status());
+        assertEquals(NOT_REQUESTED, notRequested.status());
+    }
+
+    @Test
+    @DisplayName("발급 상태 조회 - consumer 가 기록한 결과가 있으면 결과와 실패 사유를 반환한다.")
+    void getStatus_2() {
+        // given
+        Coupon coupon = saveCoupon();
+        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), "1", "2");
+        couponIssueStatusRepository.markIssued(coupon.getId(), List.of(1L));
+        couponIssueStatusRepository.markFailed(coupon.getId(), List.of(2L), INVALID_COUPON_ISSUE_QUANTITY);
+
+        // when
+        CouponIssueStatus issued = sut.getStatus(coupon.getId(), 1L);
+        CouponIssueStatus failed = sut.getStatus(coupon.getId(), 2L);
+
+        // then
+        assertEquals(ISSUED, issued.status());
+        assertEquals(FAILED, failed.status());
+        assertEquals(INVALID_COUPON_ISSUE_QUANTITY.message, failed.message());
+    }
+
+    @Test
+    @DisplayName("발급 상태 일괄 조회 - 요청한 사용자 순서대로 상태를 반환한다.")
+    void getStatuses_1() {
+        // given
+        Coupon coupon = saveCoupon();
+        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), "1", "2", "3");
+        couponIssueStatusRepository.markIssued(coupon.getId(), List.of(2L));
+
+        // when
+        List<CouponIssueStatus> statuses = sut.getStatuses(coupon.getId(), List.of(4L, 2L, 1L));
+
+        // then
+        assertEquals(List.of(NOT_REQUESTED, ISSUED, QUEUED), statuses.stream().map(CouponIssueStatus::status).toList());
+        assertEquals(List.of(4L, 2L, 1L), statuses.stream().map(CouponIssueStatus::userId).toList());
+    }
+
+    private Coupon saveCoupon() {
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(100)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        return couponJpaRepository.save(coupon);
+    }
+}
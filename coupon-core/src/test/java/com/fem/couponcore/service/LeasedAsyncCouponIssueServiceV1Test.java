@@ -0,0 +1,68 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.component.CouponLockStripes;
+import com.fem.couponcore.component.CouponQuantityLeaseManager;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.CouponQuantityLeaseRepository;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "coupon.lease.enabled=true")
+class LeasedAsyncCouponIssueServiceV1Test extends TestConfig {
+
+    @Autowired AsyncCouponIssueServiceV1 sut;
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired CouponQuantityLeaseRepository couponQuantityLeaseRepository;
+    @Autowired CouponRedisRepository couponRedisRepository;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("lease 발급 - 다른 노드가 lease 로 받아간 수량은 V1 발급으로 발급하지 않는다.")
+    void issue_1() {
+        // given
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 쿠폰")
+                .totalQuantity(1)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        CouponQuantityLeaseManager otherNode = new CouponQuantityLeaseManager(couponQuantityLeaseRepository,
+                couponRedisRepository, new CouponLockStripes(16), true, 10, Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ZERO);
+        assertNotNull(otherNode.acquire(coupon.getId(), coupon.getTotalQuantity()));
+
+        // when
+        CouponIssueException exception = assertThrows(CouponIssueException.class, () -> sut.issue(coupon.getId(), 1L));
+
+        // then
+        assertEquals(INVALID_COUPON_ISSUE_QUANTITY, exception.getErrorCode());
+        assertEquals(0, redisTemplate.opsForSet().size(getIssueRequestKey(coupon.getId())));
+    }
+}
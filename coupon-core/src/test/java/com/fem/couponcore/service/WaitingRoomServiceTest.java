@@ -0,0 +1,172 @@
+package com.fem.couponcore.service;
+
+import com.fem.couponcore.TestConfig;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponcore.model.Coupon;
+import com.fem.couponcore.model.CouponType;
+import com.fem.couponcore.repository.mysql.CouponJpaRepository;
+import com.fem.couponcore.repository.redis.WaitingRoomRepository;
+import com.fem.couponcore.service.dto.WaitingRoomStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static com.fem.couponcore.exception.ErrorCode.FAIL_COUPON_ISSUE_REQUEST;
+import static com.fem.couponcore.exception.ErrorCode.INVALID_COUPON_ISSUE_QUANTITY;
+import static com.fem.couponcore.service.dto.WaitingRoomStatus.Status.*;
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitingRoomServiceTest extends TestConfig {
+
+    @Autowired WaitingRoomService sut;
+    @Autowired CouponJpaRepository couponJpaRepository;
+    @Autowired WaitingRoomRepository waitingRoomRepository;
+    @Autowired RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void clear() {
+        Set<String> keys = redisTemplate.keys("*");
+        if (keys != null) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("대기열 - 도착 순서대로 순번을 받고 같은 사용자가 다시 들어와도 순번이 바뀌지 않는다.")
+    void enter_1() {
+        // given
+        Coupon coupon = saveCoupon(10);
+
+        // when
+        WaitingRoomStatus first = sut.enter(coupon.getId(), 100L);
+        WaitingRoomStatus second = sut.enter(coupon.getId(), 200L);
+        WaitingRoomStatus again = sut.enter(coupon.getId(), 100L);
+
+        // then
+        assertEquals(0L, first.rank());
+        assertEquals(1L, second.rank());
+        assertEquals(WAITING, again.status());
+        assertEquals(0L, again.rank());
+    }
+
+    @Test
+    @DisplayName("대기열 - 대기 순번이 최대 발급 수량을 넘으면 바로 거절한다.")
+    void enter_2() {
+        // given
+        Coupon coupon = saveCoupon(2);
+        sut.enter(coupon.getId(), 1L);
+        sut.enter(coupon.getId(), 2L);
+
+        // when
+        CouponIssueException exception = assertThrows(CouponIssueException.class, () -> sut.enter(coupon.getId(), 3L));
+
+        // then
+        assertEquals(INVALID_COUPON_ISSUE_QUANTITY, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("대기열 - 대기열을 열지 않은 쿠폰에는 들어갈 수 없다.")
+    void enter_3() {
+        // given
+        Coupon coupon = saveCoupon(10);
+        sut.close(coupon.getId());
+
+        // when
+        CouponIssueException exception = assertThrows(CouponIssueException.class, () -> sut.enter(coupon.getId(), 1L));
+
+        // then
+        assertEquals(FAIL_COUPON_ISSUE_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("대기열 - 대기열을 연 쿠폰은 대기열을 거치지 않은 발급 요청을 거절하고, 닫으면 다시 받는다.")
+    void checkNotOpened_1() {
+        // given
+        Coupon coupon = saveCoupon(10);
+
+        // when
+        CouponIssueException exception = assertThrows(CouponIssueException.class, () -> sut.checkNotOpened(coupon.getId()));
+        sut.close(coupon.getId());
+
+        // then
+        assertEquals(FAIL_COUPON_ISSUE_REQUEST, exception.getErrorCode());
+        assertDoesNotThrow(() -> sut.checkNotOpened(coupon.getId()));
+    }
+
+    @Test
+    @DisplayName("대기열 - 입장한 사용자는 발급 요청되고 입장 결과를 조회할 수 있다.")
+    void admit_1() {
+        // given
+        Coupon coupon = saveCoupon(10);
+        sut.enter(coupon.getId(), 1L);
+        sut.enter(coupon.getId(), 2L);
+
+        // when
+        int admitted = sut.admit(coupon.getId());
+
+        // then
+        assertEquals(2, admitted);
+        assertEquals(ISSUED, sut.getStatus(coupon.getId(), 1L).status());
+        assertEquals(ISSUED, sut.getStatus(coupon.getId(), 2L).status());
+        assertEquals(NOT_IN_QUEUE, sut.getStatus(coupon.getId(), 3L).status());
+        assertEquals(2, redisTemplate.opsForSet().size(getIssueRequestKey(coupon.getId())));
+        assertTrue(sut.findWaitingCouponIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("대기열 - 발급되지 않은 입장은 대기 인원에서 빠져 다른 사용자가 대기열에 들어올 수 있다.")
+    void admit_2() {
+        // given
+        Coupon coupon = saveCoupon(1);
+        sut.enter(coupon.getId(), 1L);
+        redisTemplate.opsForSet().add(getIssueRequestKey(coupon.getId()), "1");
+
+        // when
+        sut.admit(coupon.getId());
+        WaitingRoomStatus status = sut.enter(coupon.getId(), 2L);
+
+        // then
+        assertEquals(FAILED, sut.getStatus(coupon.getId(), 1L).status());
+        assertEquals(WAITING, status.status());
+        assertEquals(0L, status.rank());
+    }
+
+    @Test
+    @DisplayName("대기열 - 입장 처리 중 결과 없이 남은 사용자는 대기열로 되돌아가 다시 입장한다.")
+    void admit_3() {
+        // given
+        Coupon coupon = saveCoupon(10);
+        sut.enter(coupon.getId(), 1L);
+        waitingRoomRepository.admit(coupon.getId(), 1000, 100, System.currentTimeMillis() - 60_000);
+        assertEquals(WAITING, sut.getStatus(coupon.getId(), 1L).status());
+
+        // when
+        int admitted = sut.admit(coupon.getId());
+
+        // then
+        assertEquals(1, admitted);
+        assertEquals(ISSUED, sut.getStatus(coupon.getId(), 1L).status());
+        assertFalse(waitingRoomRepository.isProcessing(coupon.getId(), 1L));
+        assertTrue(sut.findWaitingCouponIds().isEmpty());
+    }
+
+    private Coupon saveCoupon(int totalQuantity) {
+        Coupon coupon = Coupon.builder()
+                .couponType(CouponType.FIRST_COME_FIRST_SERVED)
+                .title("선착순 테스트 쿠폰")
+                .totalQuantity(totalQuantity)
+                .issuedQuantity(0)
+                .dateIssueStart(LocalDateTime.now().minusDays(1))
+                .dateIssueEnd(LocalDateTime.now().plusDays(1))
+                .build();
+        couponJpaRepository.save(coupon);
+        sut.open(coupon.getId());
+        return coupon;
+    }
+}
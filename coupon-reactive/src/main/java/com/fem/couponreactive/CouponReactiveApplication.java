@@ -0,0 +1,17 @@
+package com.fem.couponreactive;
+
+import com.fem.couponcore.CouponCoreConfiguration;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+@Import(CouponCoreConfiguration.class)
+@SpringBootApplication
+public class CouponReactiveApplication {
+
+    public static void main(String[] args) {
+        System.setProperty("spring.config.name", "application-core,application-reactive");
+        SpringApplication.run(CouponReactiveApplication.class, args);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.fem.couponreactive.controller;
+
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponreactive.controller.dto.CouponIssueResponseDto;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class CouponControllerAdvice {
+
+    @ExceptionHandler(CouponIssueException.class)
+    public CouponIssueResponseDto couponIssueExceptionHandler(CouponIssueException e) {
+        return new CouponIssueResponseDto(false, e.getErrorCode().message);
+    }
+}
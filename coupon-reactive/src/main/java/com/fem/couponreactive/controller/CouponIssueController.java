@@ -0,0 +1,31 @@
+package com.fem.couponreactive.controller;
+
+import com.fem.couponcore.component.CouponIssueMetrics;
+import com.fem.couponcore.exception.CouponIssueException;
+import com.fem.couponreactive.controller.dto.CouponIssueRequestDto;
+import com.fem.couponreactive.controller.dto.CouponIssueResponseDto;
+import com.fem.couponreactive.service.ReactiveAsyncCouponIssueService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+public class CouponIssueController {
+    private final ReactiveAsyncCouponIssueService reactiveAsyncCouponIssueService;
+    private final CouponIssueMetrics couponIssueMetrics;
+
+    /**
+     * redis script 를 reactive driver 로 실행하여 쿠폰 발급 검증과 발급 요청 적재를 처리
+     * 요청을 기다리는 동안 스레드를 점유하지 않아 적은 event loop 스레드로 많은 요청을 동시에 처리한다.
+     */
+    @PostMapping("/v2/issue-async")
+    public Mono<CouponIssueResponseDto> asyncIssueV2(@RequestBody CouponIssueRequestDto body) {
+        return reactiveAsyncCouponIssueService.issue(body.couponId(), body.userId())
+                .doOnSuccess(ignored -> couponIssueMetrics.recordResult("reactive", body.couponId(), null))
+                .doOnError(CouponIssueException.class, e -> couponIssueMetrics.recordResult("reactive", body.couponId(), e.getErrorCode()))
+                .thenReturn(new CouponIssueResponseDto(true, null));
+    }
+}
@@ -0,0 +1,4 @@
+package com.fem.couponreactive.controller.dto;
+
+public record CouponIssueRequestDto(Long couponId, Long userId) {
+}
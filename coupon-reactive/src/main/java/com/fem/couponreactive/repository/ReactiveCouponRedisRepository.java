@@ -0,0 +1,46 @@
+package com.fem.couponreactive.repository;
+
+import com.fem.couponcore.repository.redis.CouponIssueRequestCode;
+import com.fem.couponcore.repository.redis.CouponRedisRepository;
+import com.fem.couponcore.repository.redis.dto.CouponIssueScriptRequest;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveCouponRedisRepository {
+    private static final String COUPON_CACHE_KEY_PREFIX = "coupon::";
+
+    private final ReactiveRedisTemplate<String, byte[]> reactiveByteArrayRedisTemplate;
+    private final CouponRedisRepository couponRedisRepository;
+    private final RedisSerializer<Object> couponCacheSerializer = new GenericJackson2JsonRedisSerializer();
+
+    /**
+     * RedisCacheManager 가 저장한 쿠폰 캐시를 그대로 읽는다. 캐시가 없으면 빈 Mono 를 반환한다.
+     */
+    public Mono<CouponRedisEntity> findCouponCache(Long couponId) {
+        return reactiveByteArrayRedisTemplate.opsForValue().get(COUPON_CACHE_KEY_PREFIX + couponId)
+                .map(value -> (CouponRedisEntity) couponCacheSerializer.deserialize(value));
+    }
+
+    /**
+     * 동기 발급과 같은 스크립트로 수량 검증, 중복 발급 검증, 발급 큐 적재를 원자적으로 처리한다.
+     */
+    public Mono<CouponIssueRequestCode> issueRequest(CouponIssueScriptRequest request) {
+        return reactiveByteArrayRedisTemplate.execute(
+                        couponRedisRepository.getIssueRequestScript(),
+                        request.keys(),
+                        request.args(),
+                        RedisElementWriter.from(RedisSerializer.byteArray()),
+                        RedisElementReader.from(RedisSerializer.string()))
+                .next()
+                .map(CouponIssueRequestCode::find);
+    }
+}
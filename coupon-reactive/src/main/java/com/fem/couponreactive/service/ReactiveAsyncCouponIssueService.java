@@ -0,0 +1,90 @@
+package com.fem.couponreactive.service;
+
+import com.fem.couponcore.component.CouponSoldOutRegistry;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCode;
+import com.fem.couponcore.repository.redis.CouponIssueRequestCodec;
+import com.fem.couponcore.repository.redis.dto.CouponIssueRequest;
+import com.fem.couponcore.repository.redis.dto.CouponIssueScriptRequest;
+import com.fem.couponcore.repository.redis.dto.CouponRedisEntity;
+import com.fem.couponcore.repository.redis.queue.CouponIssueQueue;
+import com.fem.couponcore.service.CouponCacheService;
+import com.fem.couponcore.service.CouponIssueRedisService;
+import com.fem.couponcore.service.WaitingRoomService;
+import com.fem.couponreactive.repository.ReactiveCouponRedisRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static com.fem.couponcore.util.CouponRedisUtils.getIssueRequestKey;
+
+/**
+ * AsyncCouponIssueServiceV2 와 같은 흐름을 reactive redis 로 처리한다.
+ * 캐시 조회, 검증, 발급 큐 적재 중 event loop 스레드를 점유하지 않는다.
+ * 캐시가 없을 때의 데이터베이스 조회, 사용자 set 을 분할한 쿠폰의 발급, 수량 lease 를 사용하는 발급, 소진 메시지 발행은
+ * blocking 이라 boundedElastic 에서 실행한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveAsyncCouponIssueService {
+    private final ReactiveCouponRedisRepository reactiveCouponRedisRepository;
+    private final CouponCacheService couponCacheService;
+    private final CouponIssueRedisService couponIssueRedisService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final CouponIssueRequestCodec couponIssueRequestCodec;
+    private final CouponIssueQueue couponIssueQueue;
+    private final WaitingRoomService waitingRoomService;
+
+    public Mono<Void> issue(Long couponId, Long userId) {
+        return Mono.fromRunnable(() -> waitingRoomService.checkNotOpened(couponId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(findCoupon(couponId))
+                .flatMap(coupon -> {
+                    coupon.checkIssuableCoupon();
+                    couponSoldOutRegistry.checkSoldOut(couponId);
+                    return issueRequest(coupon, userId)
+                            .flatMap(code -> markSoldOut(coupon, code).thenReturn(code));
+                })
+                .doOnNext(code -> code.checkRequestResult(couponId, userId))
+                .then();
+    }
+
+    private Mono<CouponRedisEntity> findCoupon(Long couponId) {
+        return reactiveCouponRedisRepository.findCouponCache(couponId)
+                .switchIfEmpty(Mono.fromCallable(() -> couponCacheService.getCouponCache(couponId))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    private Mono<CouponIssueRequestCode> issueRequest(CouponRedisEntity coupon, Long userId) {
+        byte[] value = couponIssueRequestCodec.encode(CouponIssueRequest.of(coupon.id(), userId));
+        if (couponIssueRedisService.isBitmapTracked(coupon)) {
+            return Mono.fromCallable(() -> couponIssueRedisService.issueBitmapRequest(coupon, userId, value))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        if (coupon.isUserSharded()) {
+            return Mono.fromCallable(() -> couponIssueRedisService.issueShardedRequest(coupon, userId, value))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        if (couponIssueRedisService.isLeased(coupon)) {
+            return Mono.fromCallable(() -> couponIssueRedisService.issueLeasedRequest(coupon, userId, value))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        CouponIssueScriptRequest request = new CouponIssueScriptRequest(getIssueRequestKey(coupon.id()),
+                couponIssueQueue.getQueueKey(coupon.id()), couponIssueQueue.getType(), userId, value, coupon.totalQuantity());
+        return reactiveCouponRedisRepository.issueRequest(request);
+    }
+
+    /**
+     * lease 를 받지 못한 것은 이 노드의 수량이 소진된 것이라 다른 노드에 알리지 않는다.
+     */
+    private Mono<Void> markSoldOut(CouponRedisEntity coupon, CouponIssueRequestCode code) {
+        if (code != CouponIssueRequestCode.INVALID_COUPON_ISSUE_QUANTITY || couponSoldOutRegistry.isSoldOut(coupon.id())
+                || couponIssueRedisService.isLeased(coupon)) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> couponSoldOutRegistry.markSoldOut(coupon.id()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,17 @@
+package com.fem.couponreactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.config.name=application-core", "spring.main.web-application-type=reactive"})
+class CouponReactiveApplicationTests {
+
+    @Test
+    void contextLoads() {
+    }
+
+}
@@ -1,2 +1,2 @@
 rootProject.name = "coupon"
-include("coupon-core", "coupon-api", "coupon-consumer")
\ No newline at end of file
+include("coupon-core", "coupon-api", "coupon-consumer", "coupon-reactive", "coupon-benchmark")
\ No newline at end of file